@@ -0,0 +1,69 @@
+package com.account.demo.benchmark;
+
+import com.account.demo.AccountManagementApplication;
+import com.account.demo.model.Account;
+import com.account.demo.model.AccountView;
+import com.account.demo.service.AccountService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * End-to-end create/get/update cycle through the real AccountService, repository and an embedded
+ * H2 database. BCrypt runs at the minimum cost factor so the numbers track the persistence and
+ * service overhead; hashing itself is covered by {@link PasswordBenchmark}.
+ */
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class AccountServiceBenchmark {
+
+    private ConfigurableApplicationContext context;
+
+    private AccountService accountService;
+
+    private final AtomicLong sequence = new AtomicLong();
+
+    private Long existingId;
+
+    @Setup(Level.Trial)
+    public void start() {
+        context = new SpringApplicationBuilder(AccountManagementApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.datasource.url=jdbc:h2:mem:account_benchmark",
+                        "--account.password.bcrypt-strength=4",
+                        "--logging.level.root=WARN");
+        accountService = context.getBean(AccountService.class);
+        existingId = accountService.createAccount(newAccount()).getId();
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+
+    @Benchmark
+    public AccountView createGetUpdate() {
+        Account created = accountService.createAccount(newAccount());
+        AccountView loaded = accountService.getAccountById(created.getId());
+        Account renamed = new Account(null, "Renamed " + loaded.id(), loaded.email(), null);
+        return accountService.updateAccount(created.getId(), renamed);
+    }
+
+    @Benchmark
+    public AccountView getById() {
+        return accountService.getAccountById(existingId);
+    }
+
+    private Account newAccount() {
+        long n = sequence.incrementAndGet();
+        return new Account(null, "User " + n, "user" + n + "@example.com", "Password123");
+    }
+}
@@ -0,0 +1,87 @@
+package com.account.demo.benchmark;
+
+import com.account.demo.AccountManagementApplication;
+import com.account.demo.journal.AccountJournal;
+import com.account.demo.journal.JournalEntry;
+import com.account.demo.model.Account;
+import com.account.demo.model.AccountView;
+import com.account.demo.service.AccountService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Write throughput with the change journal off and on under each fsync policy. {@code update} is
+ * the single-statement UPDATE path through AccountService (no hashing), so journaling overhead is
+ * not hidden behind BCrypt; {@code append} is the raw enqueue cost, which in steady state is paced
+ * by the writer thread once the queue fills.
+ */
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 5, time = 3)
+@Measurement(iterations = 5, time = 2)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class JournalBenchmark {
+
+    @Param({"off", "never", "interval", "always"})
+    private String journal;
+
+    private ConfigurableApplicationContext context;
+
+    private AccountService accountService;
+
+    private AccountJournal accountJournal;
+
+    private Path directory;
+
+    private Long accountId;
+
+    private final AtomicLong sequence = new AtomicLong();
+
+    @Setup(Level.Trial)
+    public void start() throws IOException {
+        directory = Files.createTempDirectory("journal-benchmark");
+        context = new SpringApplicationBuilder(AccountManagementApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.datasource.url=jdbc:h2:mem:journal_benchmark",
+                        "--account.password.bcrypt-strength=4",
+                        "--account.journal.enabled=" + !journal.equals("off"),
+                        "--account.journal.fsync=" + (journal.equals("off") ? "never" : journal),
+                        "--account.journal.path=" + directory.resolve("accounts.journal"),
+                        "--logging.level.root=WARN");
+        accountService = context.getBean(AccountService.class);
+        accountJournal = context.getBean(AccountJournal.class);
+        accountId = accountService.createAccount(new Account(null, "User", "user@example.com", "Password123")).getId();
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() throws IOException {
+        context.close();
+        try (var files = Files.list(directory)) {
+            for (Path file : files.toList()) {
+                Files.delete(file);
+            }
+        }
+        Files.delete(directory);
+    }
+
+    @Benchmark
+    public AccountView update() {
+        long n = sequence.incrementAndGet();
+        return accountService.updateAccount(accountId, new Account(null, "User " + n, "user@example.com", null));
+    }
+
+    @Benchmark
+    public void append() {
+        long n = sequence.incrementAndGet();
+        accountJournal.append(JournalEntry.of(JournalEntry.Type.UPDATED, new AccountView(n, "User " + n, "user" + n + "@example.com", n)));
+    }
+}
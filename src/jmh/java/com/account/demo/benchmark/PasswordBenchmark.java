@@ -0,0 +1,48 @@
+package com.account.demo.benchmark;
+
+import com.account.demo.util.PasswordHasher;
+import com.account.demo.util.PasswordUtil;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of BCrypt hashing on the create/patch path, dominated by the cost factor. Policy validation,
+ * which runs before it on every request, is measured by {@link PasswordPolicyBenchmark}.
+ */
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class PasswordBenchmark {
+
+    private PasswordHasher passwordHasher;
+
+    @Param({"10"})
+    private int strength;
+
+    @Setup
+    public void setUp() {
+        passwordHasher = new PasswordHasher(strength, 1, 1, 0, 1, 1, new SimpleMeterRegistry());
+    }
+
+    @TearDown
+    public void tearDown() {
+        passwordHasher.shutdown();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public String hashPasswordUtil() {
+        return PasswordUtil.hashPassword("Password123");
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public String hashPasswordHasher() {
+        return passwordHasher.hash("Password123");
+    }
+}
@@ -0,0 +1,71 @@
+package com.account.demo.benchmark;
+
+import com.account.demo.util.PasswordPolicy;
+import com.account.demo.util.PasswordPolicyException;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Password policy validation against the regex and exception check it replaced ({@code legacy*}).
+ * {@code check} is the path batches and imports take. {@code validate} is the single-request path,
+ * which turns a rejection into an exception for the error handler. Run with {@code -prof gc} to see
+ * allocation per operation.
+ */
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class PasswordPolicyBenchmark {
+
+    private static final String LEGACY_REGEX = "^(?=.*[A-Z])(?=.*[a-z])(?=.*\\d)[A-Za-z\\d]{8,}$";
+
+    // Valid, missing classes, and invalid characters; all pass through the whole password
+    @Param({"Password123", "password", "Tr0ub4dor&3xyz"})
+    private String password;
+
+    private PasswordPolicy policy;
+
+    @Setup
+    public void setUp() {
+        // Default rules plus a small deny-list, so the lookup is part of the cost
+        policy = new PasswordPolicy(8, 0, true, true, true, false, false,
+                List.of("Password1", "Qwerty123", "Welcome1", "Letmein1", "Admin123"));
+    }
+
+    @Benchmark
+    public String legacy() {
+        try {
+            if (password == null || password.trim().isEmpty()) {
+                throw new IllegalArgumentException(PasswordPolicy.EMPTY_MESSAGE);
+            }
+            if (!password.matches(LEGACY_REGEX)) {
+                throw new IllegalArgumentException(PasswordPolicy.FORMAT_MESSAGE);
+            }
+            return null;
+        } catch (IllegalArgumentException e) {
+            return e.getMessage();
+        }
+    }
+
+    @Benchmark
+    public PasswordPolicy.Result check() {
+        return policy.check(password);
+    }
+
+    @Benchmark
+    public String validate() {
+        PasswordPolicy.Result result = policy.check(password);
+        try {
+            if (!result.isValid()) {
+                throw new PasswordPolicyException(result);
+            }
+            return null;
+        } catch (PasswordPolicyException e) {
+            return e.getMessage();
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.account.demo.benchmark;
+
+import com.account.demo.model.AccountView;
+import com.account.demo.service.AccountSearchIndex;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Search latency over a 1M-account index (SampleTime, so the JMH output includes p99 and p99.9).
+ * Queries cover a two-character typeahead prefix, common and rare substrings, a substring present
+ * in most emails, and a miss. Run with a heap of at least 2g.
+ */
+@State(Scope.Benchmark)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SearchBenchmark {
+
+    private static final String[] FIRST = {"john", "jane", "mary", "james", "linda", "robert", "patricia", "michael",
+            "barbara", "william", "elizabeth", "david", "jennifer", "richard", "maria", "joseph", "susan", "thomas",
+            "margaret", "charles", "dorothy", "christopher", "lisa", "daniel", "nancy", "matthew", "karen", "anthony"};
+
+    private static final String[] LAST = {"smith", "johnson", "williams", "brown", "jones", "garcia", "miller", "davis",
+            "rodriguez", "martinez", "hernandez", "lopez", "gonzalez", "wilson", "anderson", "thomas", "taylor",
+            "moore", "jackson", "martin", "lee", "perez", "thompson", "white", "harris", "sanchez", "clark", "lewis"};
+
+    private static final String[] DOMAINS = {"example.com", "mail.test", "corp.example", "inbox.test"};
+
+    @Param({"1000000"})
+    private int accounts;
+
+    @Param({"jo", "smith", "barbara.lopez4711", "example", "zzq"})
+    private String query;
+
+    @Param({"10"})
+    private int limit;
+
+    private AccountSearchIndex index;
+
+    @Setup(Level.Trial)
+    public void build() {
+        index = new AccountSearchIndex(true, new SimpleMeterRegistry());
+        Random random = new Random(42);
+        for (long id = 1; id <= accounts; id++) {
+            String first = FIRST[random.nextInt(FIRST.length)];
+            String last = LAST[random.nextInt(LAST.length)];
+            String name = Character.toUpperCase(first.charAt(0)) + first.substring(1) + " "
+                    + Character.toUpperCase(last.charAt(0)) + last.substring(1);
+            String email = first + "." + last + id + "@" + DOMAINS[(int) (id % DOMAINS.length)];
+            index.put(new AccountView(id, name, email, 0L));
+        }
+        index.markReady();
+        System.gc();
+        Runtime runtime = Runtime.getRuntime();
+        System.out.printf("%n%d accounts indexed, heap used after GC: %d MB%n", index.size(),
+                (runtime.totalMemory() - runtime.freeMemory()) >> 20);
+    }
+
+    @Benchmark
+    public List<AccountView> search() {
+        return index.search(query, limit);
+    }
+}
@@ -0,0 +1,90 @@
+package com.account.demo.benchmark;
+
+import com.account.demo.model.Account;
+import com.account.demo.model.AccountView;
+import com.account.demo.model.ErrorResponse;
+import com.account.demo.util.CustomResponsePojo;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.util.StreamUtils;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Response-building and Jackson cost of the hot endpoints: the fixed-message body returned by
+ * create/delete, the AccountView body returned by get/update/patch, and the Account request body
+ * read by create/update/patch. The {@code *Map*} benchmarks
+ * reproduce the HashMap bodies that the cached bytes and {@link ErrorResponse} records replaced.
+ * Each {@code write*} benchmark builds one response and writes its body the way the message
+ * converter would, so {@code -prof gc} shows allocation per request.
+ */
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class SerializationBenchmark {
+
+    private ObjectMapper objectMapper;
+
+    private AccountView view;
+
+    // Stands in for the servlet output stream, so only response building and serialization are measured;
+    // non-closing like the one the Jackson message converter writes to
+    private final OutputStream out = StreamUtils.nonClosing(OutputStream.nullOutputStream());
+
+    @Setup
+    public void setUp() {
+        // Same defaults Spring Boot applies to the mapper used by the message converters
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        view = new AccountView(42L, "John Doe", "johndoe@example.com", 3L);
+    }
+
+    @Benchmark
+    public void writeMapResponse() throws IOException {
+        Map<String, Object> map = new HashMap<>();
+        map.put("message", "Account Successfully Created");
+        map.put("status", HttpStatus.CREATED.value());
+        ResponseEntity<Object> response = new ResponseEntity<>(map, HttpStatus.CREATED);
+        objectMapper.writeValue(out, response.getBody());
+    }
+
+    @Benchmark
+    public void writeCachedResponse() throws IOException {
+        ResponseEntity<byte[]> response = CustomResponsePojo.ACCOUNT_CREATED;
+        out.write(response.getBody());
+    }
+
+    @Benchmark
+    public void writeErrorMap() throws IOException {
+        Map<String, String> errors = new HashMap<>();
+        errors.put("error", "Email johndoe@example.com is already registered");
+        objectMapper.writeValue(out, new ResponseEntity<>(errors, HttpStatus.CONFLICT).getBody());
+    }
+
+    @Benchmark
+    public void writeErrorRecord() throws IOException {
+        ErrorResponse error = ErrorResponse.of("Email johndoe@example.com is already registered");
+        objectMapper.writeValue(out, new ResponseEntity<>(error, HttpStatus.CONFLICT).getBody());
+    }
+
+    @Benchmark
+    public void writeAccountView() throws IOException {
+        objectMapper.writeValue(out, ResponseEntity.ok(view).getBody());
+    }
+
+    @Benchmark
+    public Account deserializeAccount() throws JsonProcessingException {
+        return objectMapper.readValue(
+                "{\"name\":\"John Doe\",\"email\":\"johndoe@example.com\",\"password\":\"Password123\"}", Account.class);
+    }
+}
@@ -0,0 +1,149 @@
+package com.account.demo.loadtest;
+
+import com.account.demo.loadtest.Workload.Operation;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-operation latency (HdrHistogram {@link ConcurrentHistogram}s, wait-free for the recording threads) and
+ * HTTP status counts for one load-test run, rendered as a table and as a JSON report that a later
+ * run can be compared against.
+ */
+final class LatencyReport {
+
+    /** Status recorded for a request that got no HTTP response (connection failure or timeout). */
+    static final int IO_ERROR = -1;
+
+    // Anything slower than a minute is recorded as a minute
+    private static final long HIGHEST_TRACKABLE_NANOS = TimeUnit.MINUTES.toNanos(1);
+
+    /** Summary of one operation; latencies in milliseconds. */
+    record Stats(long count, double throughput, long errors, Map<Integer, Long> statuses,
+                 double p50Ms, double p90Ms, double p99Ms, double p999Ms, double maxMs) {
+    }
+
+    /** The JSON document written per run. */
+    record Run(String timestamp, String java, String threads, int concurrency, double seconds,
+               Map<String, String> settings, Map<Operation, Stats> operations) {
+    }
+
+    // Swapped out whole on reset, so a request is counted in the histogram and the status counts
+    // of the same phase even when it races the reset
+    private volatile Phase phase = new Phase();
+
+    void record(Operation operation, long nanos, int status) {
+        Phase current = phase;
+        current.histograms.get(operation).recordValue(Math.min(nanos, HIGHEST_TRACKABLE_NANOS));
+        current.statuses.get(operation).computeIfAbsent(status, code -> new LongAdder()).increment();
+    }
+
+    /** Discards everything recorded so far (the warmup). */
+    void reset() {
+        phase = new Phase();
+    }
+
+    /** Summarises everything recorded since the last reset over a measurement of {@code nanos}. */
+    Map<Operation, Stats> collect(long nanos) {
+        double seconds = nanos / 1e9;
+        Map<Operation, Stats> result = new EnumMap<>(Operation.class);
+        Phase current = phase;
+        for (Operation operation : Operation.values()) {
+            Histogram histogram = current.histograms.get(operation);
+            if (histogram.getTotalCount() == 0) {
+                continue;
+            }
+            Map<Integer, Long> counts = new TreeMap<>();
+            current.statuses.get(operation).forEach((status, count) -> counts.put(status, count.sum()));
+            long errors = counts.entrySet().stream()
+                    .filter(entry -> entry.getKey() >= 400 || entry.getKey() == IO_ERROR)
+                    .mapToLong(Map.Entry::getValue)
+                    .sum();
+            result.put(operation, new Stats(histogram.getTotalCount(), histogram.getTotalCount() / seconds, errors, counts,
+                    millis(histogram.getValueAtPercentile(50)), millis(histogram.getValueAtPercentile(90)),
+                    millis(histogram.getValueAtPercentile(99)), millis(histogram.getValueAtPercentile(99.9)),
+                    millis(histogram.getMaxValue())));
+        }
+        return result;
+    }
+
+    private static double millis(long nanos) {
+        return Math.round(nanos / 1e3) / 1e3;
+    }
+
+    static void print(Run run, PrintStream out) {
+        out.printf("%n%d workers on %s threads for %.1fs (Java %s)%n", run.concurrency(), run.threads(), run.seconds(), run.java());
+        out.printf("%-8s %9s %10s %7s %9s %9s %9s %9s %9s  %s%n",
+                "op", "count", "req/s", "errors", "p50 ms", "p90 ms", "p99 ms", "p999 ms", "max ms", "statuses");
+        double total = 0;
+        for (Map.Entry<Operation, Stats> entry : run.operations().entrySet()) {
+            Stats stats = entry.getValue();
+            total += stats.throughput();
+            out.printf("%-8s %9d %10.1f %7d %9.2f %9.2f %9.2f %9.2f %9.2f  %s%n",
+                    entry.getKey().name().toLowerCase(), stats.count(), stats.throughput(), stats.errors(),
+                    stats.p50Ms(), stats.p90Ms(), stats.p99Ms(), stats.p999Ms(), stats.maxMs(), stats.statuses());
+        }
+        out.printf("%-8s %9s %10.1f%n", "total", "", total);
+    }
+
+    static void write(Run run, Path path) throws IOException {
+        Path directory = path.toAbsolutePath().getParent();
+        if (directory != null) {
+            Files.createDirectories(directory);
+        }
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(path.toFile(), run);
+    }
+
+    /** Prints throughput and p99 of this run next to a previous report, with the relative change. */
+    static void compare(Run run, Path baselinePath, PrintStream out) throws IOException {
+        JsonNode baseline = new ObjectMapper().readTree(baselinePath.toFile()).path("operations");
+        out.printf("%nCompared with %s%n", baselinePath);
+        out.printf("%-8s %12s %12s %8s %10s %10s %8s%n", "op", "base req/s", "req/s", "change", "base p99", "p99", "change");
+        Map<String, Stats> current = new LinkedHashMap<>();
+        run.operations().forEach((operation, stats) -> current.put(operation.name(), stats));
+        current.forEach((name, stats) -> {
+            JsonNode base = baseline.path(name);
+            if (base.isMissingNode()) {
+                out.printf("%-8s (not in baseline)%n", name.toLowerCase());
+                return;
+            }
+            double baseThroughput = base.path("throughput").asDouble();
+            double baseP99 = base.path("p99Ms").asDouble();
+            out.printf("%-8s %12.1f %12.1f %7.1f%% %10.2f %10.2f %7.1f%%%n", name.toLowerCase(),
+                    baseThroughput, stats.throughput(), change(baseThroughput, stats.throughput()),
+                    baseP99, stats.p99Ms(), change(baseP99, stats.p99Ms()));
+        });
+    }
+
+    private static double change(double before, double after) {
+        return before == 0 ? 0 : (after - before) * 100 / before;
+    }
+
+    private static final class Phase {
+
+        final Map<Operation, Histogram> histograms = new EnumMap<>(Operation.class);
+
+        final Map<Operation, Map<Integer, LongAdder>> statuses = new EnumMap<>(Operation.class);
+
+        Phase() {
+            for (Operation operation : Operation.values()) {
+                histograms.put(operation, new ConcurrentHistogram(HIGHEST_TRACKABLE_NANOS, 3));
+                statuses.put(operation, new ConcurrentHashMap<>());
+            }
+        }
+    }
+}
@@ -0,0 +1,189 @@
+package com.account.demo.loadtest;
+
+import com.account.demo.AccountManagementApplication;
+import com.account.demo.loadtest.Workload.Operation;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.core.env.StandardEnvironment;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Closed-loop load test: boots {@link AccountManagementApplication} on a random port (or targets a
+ * running server), seeds accounts, and runs {@code concurrency} workers that each send one request
+ * at a time, drawn from a weighted mix of operations, until the duration is up. Latencies of the
+ * warmup are discarded. Workers run on virtual threads when the JDK has them (21+) and on one
+ * platform thread each otherwise.
+ * <p>
+ * Run with {@code mvn -Ploadtest test-compile exec:exec -Dloadtest.args="..."}. Options:
+ * <pre>
+ *   --duration=60s --warmup=15s --concurrency=32 --seed=1000
+ *   --mix=create=5,get=50,list=15,update=15,patch=5,delete=10
+ *   --report=target/loadtest-report.json   JSON report of this run
+ *   --baseline=path/to/report.json         print the change against an earlier run
+ *   --target=http://host:8080              load an already running server instead of booting one
+ *   --max-error-rate=0.01                  exit with status 1 above this share of 4xx/5xx/failed requests
+ * </pre>
+ * Any other {@code --name=value} is passed to the booted application as a property, e.g.
+ * {@code --spring.profiles.active=memory} or {@code --account.password.bcrypt-strength=4}.
+ * <p>
+ * Being closed-loop, a slow server also slows the request rate, so latencies under saturation
+ * understate what an open-loop client would see; compare runs with the same settings.
+ */
+public final class LoadTest {
+
+    private static final String DEFAULT_MIX = "create=5,get=50,list=15,update=15,patch=5,delete=10";
+
+    // The rate limiter would turn most of a load test into 429s; logs would drown the report
+    private static final Map<String, Object> APPLICATION_DEFAULTS = Map.of(
+            "server.port", "0",
+            "account.rate-limit.enabled", "false",
+            "logging.level.root", "WARN",
+            "spring.main.banner-mode", "off");
+
+    private LoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new LinkedHashMap<>();
+        options.put("duration", "60s");
+        options.put("warmup", "15s");
+        options.put("concurrency", "32");
+        options.put("seed", "1000");
+        options.put("mix", DEFAULT_MIX);
+        options.put("report", "target/loadtest-report.json");
+        options.put("baseline", "");
+        options.put("target", "");
+        options.put("max-error-rate", "0.01");
+        List<String> applicationArgs = new ArrayList<>();
+        for (String arg : args) {
+            int equals = arg.indexOf('=');
+            String name = arg.startsWith("--") && equals > 2 ? arg.substring(2, equals) : null;
+            if (name != null && options.containsKey(name)) {
+                options.put(name, arg.substring(equals + 1));
+            } else {
+                applicationArgs.add(arg);
+            }
+        }
+        System.exit(run(options, applicationArgs));
+    }
+
+    private static int run(Map<String, String> options, List<String> applicationArgs) throws Exception {
+        Duration duration = DurationStyle.detectAndParse(options.get("duration"));
+        Duration warmup = DurationStyle.detectAndParse(options.get("warmup"));
+        int concurrency = Integer.parseInt(options.get("concurrency"));
+        Map<Operation, Integer> mix = Workload.parseMix(options.get("mix"));
+
+        ConfigurableApplicationContext application = null;
+        URI base;
+        if (options.get("target").isBlank()) {
+            // Ranks above application.properties; the command line, added first at startup, still wins
+            StandardEnvironment environment = new StandardEnvironment();
+            environment.getPropertySources().addFirst(new MapPropertySource("loadtest", APPLICATION_DEFAULTS));
+            application = new SpringApplicationBuilder(AccountManagementApplication.class)
+                    .environment(environment)
+                    .run(applicationArgs.toArray(new String[0]));
+            int port = ((WebServerApplicationContext) application).getWebServer().getPort();
+            base = URI.create("http://localhost:" + port);
+        } else {
+            base = URI.create(options.get("target"));
+        }
+        try {
+            HttpClient client = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .connectTimeout(Duration.ofSeconds(5))
+                    .build();
+            Workload workload = new Workload(client, base, mix);
+            workload.seed(Integer.parseInt(options.get("seed")));
+            System.out.printf("Target %s, %d accounts seeded, mix %s%n", base, workload.pooled(), mix);
+
+            LatencyReport report = new LatencyReport();
+            Threads threads = workers(concurrency);
+            long measuredNanos = drive(workload, report, threads.executor(), concurrency, warmup, duration);
+
+            Map<String, String> settings = new LinkedHashMap<>(options);
+            settings.put("application", String.join(" ", applicationArgs));
+            LatencyReport.Run run = new LatencyReport.Run(Instant.now().toString(), System.getProperty("java.version"),
+                    threads.kind(), concurrency, measuredNanos / 1e9, settings, report.collect(measuredNanos));
+            LatencyReport.print(run, System.out);
+            Path reportPath = Path.of(options.get("report"));
+            LatencyReport.write(run, reportPath);
+            System.out.printf("Report written to %s%n", reportPath);
+            if (!options.get("baseline").isBlank()) {
+                LatencyReport.compare(run, Path.of(options.get("baseline")), System.out);
+            }
+            return exitCode(run, Double.parseDouble(options.get("max-error-rate")));
+        } finally {
+            if (application != null) {
+                application.close();
+            }
+        }
+    }
+
+    private record Threads(ExecutorService executor, String kind) {
+    }
+
+    // Executors.newVirtualThreadPerTaskExecutor() only exists on JDK 21+, and the build targets 17
+    private static Threads workers(int concurrency) {
+        try {
+            Object executor = Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+            return new Threads((ExecutorService) executor, "virtual");
+        } catch (ReflectiveOperationException e) {
+            return new Threads(Executors.newFixedThreadPool(concurrency, new CustomizableThreadFactory("load-")), "platform");
+        }
+    }
+
+    /** Runs the warmup and the measurement; returns the length of the measurement in nanos. */
+    private static long drive(Workload workload, LatencyReport report, ExecutorService executor, int concurrency,
+                              Duration warmup, Duration duration) throws InterruptedException {
+        long start = System.nanoTime();
+        long end = start + warmup.toNanos() + duration.toNanos();
+        for (int i = 0; i < concurrency; i++) {
+            executor.execute(() -> {
+                try {
+                    while (System.nanoTime() - end < 0) {
+                        workload.step(report);
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } catch (IOException e) {
+                    throw new IllegalStateException(e);
+                }
+            });
+        }
+        TimeUnit.NANOSECONDS.sleep(warmup.toNanos());
+        report.reset();
+        long measureStart = System.nanoTime();
+        executor.shutdown();
+        if (!executor.awaitTermination(duration.toSeconds() + 60, TimeUnit.SECONDS)) {
+            executor.shutdownNow();
+        }
+        return System.nanoTime() - measureStart;
+    }
+
+    private static int exitCode(LatencyReport.Run run, double maxErrorRate) {
+        long requests = run.operations().values().stream().mapToLong(LatencyReport.Stats::count).sum();
+        long errors = run.operations().values().stream().mapToLong(LatencyReport.Stats::errors).sum();
+        if (requests > 0 && (double) errors / requests > maxErrorRate) {
+            System.out.printf("Error rate %.2f%% exceeds %.2f%%%n", errors * 100.0 / requests, maxErrorRate * 100);
+            return 1;
+        }
+        return 0;
+    }
+}
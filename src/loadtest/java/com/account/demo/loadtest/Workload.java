@@ -0,0 +1,223 @@
+package com.account.demo.loadtest;
+
+import com.account.demo.model.AccountView;
+import com.account.demo.model.BatchCreateResponse;
+import com.account.demo.model.BatchItemResult;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The traffic a load-test worker sends: a weighted mix of account operations against
+ * {@code /api/v1/accounts}. Operations that need an existing account draw one from a shared pool,
+ * which is seeded before the run, grown by creates and shrunk by deletes.
+ */
+final class Workload {
+
+    enum Operation { CREATE, GET, LIST, UPDATE, PATCH, DELETE }
+
+    private static final String PASSWORD = "Password123";
+
+    private static final int SEED_BATCH_SIZE = 500;
+
+    private final HttpClient client;
+
+    private final URI base;
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    private final Operation[] operations;
+
+    private final int[] cumulativeWeights;
+
+    private final Pool pool = new Pool();
+
+    // Makes emails unique across runs against the same long-lived server
+    private final String runId = Long.toString(System.currentTimeMillis(), 36);
+
+    private final AtomicLong sequence = new AtomicLong();
+
+    Workload(HttpClient client, URI base, Map<Operation, Integer> mix) {
+        this.client = client;
+        this.base = base;
+        this.operations = mix.keySet().toArray(new Operation[0]);
+        this.cumulativeWeights = new int[operations.length];
+        int total = 0;
+        for (int i = 0; i < operations.length; i++) {
+            total += mix.get(operations[i]);
+            cumulativeWeights[i] = total;
+        }
+    }
+
+    /** Parses {@code create=5,get=50,...}; operations left out are not sent. */
+    static Map<Operation, Integer> parseMix(String mix) {
+        Map<Operation, Integer> weights = new LinkedHashMap<>();
+        for (String part : mix.split(",")) {
+            String[] pair = part.trim().split("=");
+            if (pair.length != 2) {
+                throw new IllegalArgumentException("Mix entries look like get=50, not " + part);
+            }
+            int weight = Integer.parseInt(pair[1].trim());
+            if (weight > 0) {
+                weights.put(Operation.valueOf(pair[0].trim().toUpperCase()), weight);
+            }
+        }
+        if (weights.isEmpty()) {
+            throw new IllegalArgumentException("Mix must give at least one operation a positive weight");
+        }
+        return weights;
+    }
+
+    /** Creates {@code count} accounts through the batch endpoint and pools them. */
+    void seed(int count) throws IOException, InterruptedException {
+        for (int done = 0; done < count; done += SEED_BATCH_SIZE) {
+            int size = Math.min(SEED_BATCH_SIZE, count - done);
+            List<Map<String, String>> batch = new ArrayList<>(size);
+            List<String> emails = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                String email = nextEmail();
+                emails.add(email);
+                batch.add(Map.of("name", "Seed Account", "email", email, "password", PASSWORD));
+            }
+            HttpResponse<byte[]> response = send(request("/batch").POST(json(batch)).build());
+            if (response.statusCode() != 200) {
+                throw new IllegalStateException("Seeding failed with HTTP " + response.statusCode());
+            }
+            for (BatchItemResult item : mapper.readValue(response.body(), BatchCreateResponse.class).results()) {
+                if (item.isCreated()) {
+                    pool.add(new Account(item.id(), emails.get(item.index())));
+                }
+            }
+        }
+    }
+
+    int pooled() {
+        return pool.size();
+    }
+
+    private Operation pick() {
+        int roll = ThreadLocalRandom.current().nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (roll < cumulativeWeights[i]) {
+                return operations[i];
+            }
+        }
+        throw new IllegalStateException();
+    }
+
+    /**
+     * Sends one request of a randomly picked operation and records its latency and status. Only
+     * the request itself is timed; a create is followed by an untimed lookup of the new id, since
+     * the create response does not carry it. Operations that need an account when the pool is
+     * empty are skipped.
+     */
+    void step(LatencyReport report) throws IOException, InterruptedException {
+        Operation operation = pick();
+        HttpRequest request;
+        Account account = null;
+        String createdEmail = null;
+        switch (operation) {
+            case CREATE -> {
+                createdEmail = nextEmail();
+                request = request("/create").POST(json(body("Load Test", createdEmail))).build();
+            }
+            case LIST -> {
+                Account after = pool.any();
+                request = request(after == null ? "" : "?after=" + after.id()).GET().build();
+            }
+            default -> {
+                account = operation == Operation.DELETE ? pool.take() : pool.any();
+                if (account == null) {
+                    return;
+                }
+                request = switch (operation) {
+                    case GET -> request("/" + account.id()).GET().build();
+                    case UPDATE -> request("/" + account.id()).PUT(json(body("Updated Account", account.email()))).build();
+                    case PATCH -> request("/" + account.id()).method("PATCH", json(body("Updated Account", account.email()))).build();
+                    default -> request("/" + account.id()).DELETE().build();
+                };
+            }
+        }
+        long start = System.nanoTime();
+        int status;
+        try {
+            status = send(request).statusCode();
+        } catch (IOException e) {
+            status = LatencyReport.IO_ERROR;
+        }
+        report.record(operation, System.nanoTime() - start, status);
+        if (createdEmail != null && status == 201) {
+            try {
+                HttpResponse<byte[]> created = send(request("/by-email?email=" + createdEmail).GET().build());
+                if (created.statusCode() == 200) {
+                    pool.add(new Account(mapper.readValue(created.body(), AccountView.class).id(), createdEmail));
+                }
+            } catch (IOException e) {
+                // the account just stays out of the pool
+            }
+        }
+    }
+
+    private HttpResponse<byte[]> send(HttpRequest request) throws IOException, InterruptedException {
+        return client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+    }
+
+    private HttpRequest.Builder request(String path) {
+        return HttpRequest.newBuilder(base.resolve("/api/v1/accounts" + path))
+                .timeout(Duration.ofSeconds(30))
+                .header("Content-Type", "application/json");
+    }
+
+    private HttpRequest.BodyPublisher json(Object body) throws IOException {
+        return HttpRequest.BodyPublishers.ofByteArray(mapper.writeValueAsBytes(body));
+    }
+
+    private static Map<String, String> body(String name, String email) {
+        return Map.of("name", name, "email", email, "password", PASSWORD);
+    }
+
+    private String nextEmail() {
+        return "load-" + runId + "-" + sequence.incrementAndGet() + "@example.com";
+    }
+
+    private record Account(long id, String email) {
+    }
+
+    // Random access plus swap-removal; a lock is cheap next to an HTTP round trip
+    private static final class Pool {
+
+        private final List<Account> accounts = new ArrayList<>();
+
+        synchronized void add(Account account) {
+            accounts.add(account);
+        }
+
+        synchronized Account any() {
+            return accounts.isEmpty() ? null : accounts.get(ThreadLocalRandom.current().nextInt(accounts.size()));
+        }
+
+        synchronized Account take() {
+            if (accounts.isEmpty()) {
+                return null;
+            }
+            int index = ThreadLocalRandom.current().nextInt(accounts.size());
+            Account last = accounts.remove(accounts.size() - 1);
+            return index == accounts.size() ? last : accounts.set(index, last);
+        }
+
+        synchronized int size() {
+            return accounts.size();
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.account.demo.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.AnnotatedBeanDefinition;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.BeanFactoryPostProcessor;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.context.EnvironmentAware;
+import org.springframework.core.env.Environment;
+import org.springframework.core.type.MethodMetadata;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Makes the beans of non-critical libraries lazy ({@code account.startup.lazy-packages}, a list of
+ * package prefixes, empty by default). A bean matches when its class, or the configuration class
+ * declaring its {@code @Bean} method, is in one of the packages. Lazy beans are created when first
+ * used, e.g. springdoc's OpenAPI generation on the first docs request instead of at startup; beans
+ * that an eager bean depends on are still created at startup. Not every library tolerates this,
+ * so check the affected endpoints when adding a package. Unlike
+ * {@code spring.main.lazy-initialization} this keeps the application's own beans, and the
+ * failures they might report, at startup.
+ */
+@Component
+public class LazyPackagesPostProcessor implements BeanFactoryPostProcessor, EnvironmentAware {
+
+    private static final Logger log = LoggerFactory.getLogger(LazyPackagesPostProcessor.class);
+
+    // Bean factory post-processors are created before @Value injection is available
+    private List<String> packages = List.of();
+
+    @Override
+    public void setEnvironment(Environment environment) {
+        String[] configured = environment.getProperty("account.startup.lazy-packages", String[].class, new String[0]);
+        packages = Arrays.stream(configured).map(String::trim).filter(prefix -> !prefix.isEmpty()).toList();
+    }
+
+    @Override
+    public void postProcessBeanFactory(ConfigurableListableBeanFactory beanFactory) {
+        if (packages.isEmpty()) {
+            return;
+        }
+        int lazy = 0;
+        for (String name : beanFactory.getBeanDefinitionNames()) {
+            BeanDefinition definition = beanFactory.getBeanDefinition(name);
+            if (!definition.isLazyInit() && matches(origin(definition))) {
+                definition.setLazyInit(true);
+                lazy++;
+            }
+        }
+        log.debug("Made {} beans in {} lazy", lazy, packages);
+    }
+
+    private boolean matches(String className) {
+        return className != null && packages.stream().anyMatch(className::startsWith);
+    }
+
+    private static String origin(BeanDefinition definition) {
+        if (definition.getBeanClassName() != null) {
+            return definition.getBeanClassName();
+        }
+        if (definition instanceof AnnotatedBeanDefinition annotated) {
+            MethodMetadata factoryMethod = annotated.getFactoryMethodMetadata();
+            return factoryMethod != null ? factoryMethod.getDeclaringClassName() : null;
+        }
+        return null;
+    }
+}
@@ -0,0 +1,73 @@
+package com.account.demo.config;
+
+import com.account.demo.dao.ReplicaDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Read/write splitting for the JPA store, active when {@code account.datasource.replicas.urls} is
+ * set. The application's DataSource becomes a {@link LazyConnectionDataSourceProxy}. It fetches no
+ * physical connection until the first statement, when the transaction's read-only flag is known.
+ * It then takes connections for read-only transactions from the {@link ReplicaDataSource} and all
+ * others from the primary ({@code spring.datasource.*}, pooled as usual).
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(name = "account.store", havingValue = "jpa", matchIfMissing = true)
+@ConditionalOnExpression("!'${account.datasource.replicas.urls:}'.isBlank()")
+public class ReadReplicaConfiguration {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean(destroyMethod = "close")
+    public ReplicaDataSource replicaDataSource(HikariDataSource primaryDataSource, DataSourceProperties properties,
+                                               @Value("${account.datasource.replicas.urls}") List<String> urls,
+                                               @Value("${account.datasource.replicas.username:}") String username,
+                                               @Value("${account.datasource.replicas.password:}") String password,
+                                               @Value("${account.datasource.replicas.pool-size:10}") int poolSize,
+                                               @Value("${account.datasource.replicas.connection-timeout:1s}") Duration connectionTimeout,
+                                               @Value("${account.datasource.replicas.probe-interval:5s}") Duration probeInterval,
+                                               MeterRegistry registry) {
+        List<String> replicaUrls = urls.stream().map(String::trim).filter(url -> !url.isEmpty()).toList();
+        List<DataSource> replicas = new ArrayList<>();
+        for (int i = 0; i < replicaUrls.size(); i++) {
+            HikariDataSource replica = new HikariDataSource();
+            replica.setPoolName("replica-" + i);
+            replica.setJdbcUrl(replicaUrls.get(i));
+            replica.setDriverClassName(properties.determineDriverClassName());
+            replica.setUsername(username.isEmpty() ? properties.determineUsername() : username);
+            replica.setPassword(username.isEmpty() ? properties.determinePassword() : password);
+            replica.setMaximumPoolSize(poolSize);
+            // A replica that is down must not hold a read for the primary's much longer timeout
+            replica.setConnectionTimeout(connectionTimeout.toMillis());
+            replica.setReadOnly(true);
+            replicas.add(replica);
+        }
+        return new ReplicaDataSource(primaryDataSource, replicas, probeInterval, registry);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(HikariDataSource primaryDataSource, ReplicaDataSource replicaDataSource) {
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(primaryDataSource);
+        dataSource.setReadOnlyDataSource(replicaDataSource);
+        return dataSource;
+    }
+}
@@ -0,0 +1,56 @@
+package com.account.demo.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.support.ServletRequestHandledEvent;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures time to first request: the JVM uptime when the first HTTP request has been answered,
+ * which covers JVM start, context refresh and whatever the first request still had to initialize
+ * lazily. Logged once and exported as {@code application.first.request.time} next to Spring Boot's
+ * {@code application.started.time} and {@code application.ready.time}.
+ */
+@Component
+public class StartupTimeReporter {
+
+    private static final Logger log = LoggerFactory.getLogger(StartupTimeReporter.class);
+
+    private volatile double readyMillis = Double.NaN;
+
+    private volatile double firstRequestMillis = Double.NaN;
+
+    public StartupTimeReporter(MeterRegistry registry) {
+        TimeGauge.builder("application.first.request.time", this, TimeUnit.MILLISECONDS, reporter -> reporter.firstRequestMillis)
+                .description("Time from JVM start until the first HTTP request was answered")
+                .register(registry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void ready() {
+        readyMillis = ManagementFactory.getRuntimeMXBean().getUptime();
+    }
+
+    // Published by the DispatcherServlet after every request; only the first one is of interest
+    @EventListener(ServletRequestHandledEvent.class)
+    public void requestHandled(ServletRequestHandledEvent event) {
+        if (!Double.isNaN(firstRequestMillis)) {
+            return;
+        }
+        synchronized (this) {
+            if (Double.isNaN(firstRequestMillis)) {
+                firstRequestMillis = ManagementFactory.getRuntimeMXBean().getUptime();
+                log.info("Time to first request: {} ms since JVM start (ready at {} ms, {} {} took {} ms)",
+                        (long) firstRequestMillis, (long) readyMillis, event.getMethod(), event.getRequestUrl(),
+                        event.getProcessingTimeMillis());
+            }
+        }
+    }
+}
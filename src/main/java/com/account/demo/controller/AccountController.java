@@ -1,52 +1,112 @@
 package com.account.demo.controller;
 
 import com.account.demo.model.Account;
+import com.account.demo.model.AccountLookup;
+import com.account.demo.model.AccountPage;
+import com.account.demo.model.AccountSearchResult;
+import com.account.demo.model.AccountView;
+import com.account.demo.model.BatchCreateResponse;
+import com.account.demo.model.ImportReport;
+import com.account.demo.model.VerificationRequest;
+import com.account.demo.model.VerificationResult;
+import com.account.demo.service.AccountImporter;
 import com.account.demo.service.AccountService;
 import com.account.demo.util.CustomResponsePojo;
+import com.account.demo.util.ETags;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 
+import java.io.IOException;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/api/v1/accounts")
 public class AccountController {
 
+    public static final String IDEMPOTENCY_KEY = "Idempotency-Key";
+
     @Autowired
     private AccountService accountService;
 
+    @Autowired
+    private AccountImporter accountImporter;
+
+    // Retries carrying the same Idempotency-Key are answered from the first attempt
     @PostMapping("/create")
-    public ResponseEntity<Object> createAccount(@Valid @RequestBody Account account) {
-        Account createdAccount = accountService.createAccount(account);
-       return CustomResponsePojo.generateResponse("Account Successfully Created", HttpStatus.CREATED);
+    @ApiResponse(responseCode = "201", content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+            schema = @Schema(implementation = CustomResponsePojo.class)))
+    public CompletableFuture<ResponseEntity<byte[]>> createAccount(@Valid @RequestBody Account account,
+            @RequestHeader(value = IDEMPOTENCY_KEY, required = false) String idempotencyKey) {
+        return accountService.createAccountAsync(account, idempotencyKey)
+                .thenApply(createdAccount -> CustomResponsePojo.ACCOUNT_CREATED);
+    }
+
+    @PostMapping("/batch")
+    public ResponseEntity<BatchCreateResponse> createAccounts(@RequestBody List<Account> accounts) {
+        BatchCreateResponse response = accountService.createAccounts(accounts);
+        return new ResponseEntity<>(response, HttpStatus.OK);
+    }
+
+    // Streams the request body through AccountImporter; the report lists rejected rows by line
+    @PostMapping(value = "/import", consumes = {"text/csv", MediaType.TEXT_PLAIN_VALUE})
+    public ResponseEntity<ImportReport> importAccounts(HttpServletRequest request) throws IOException {
+        return new ResponseEntity<>(accountImporter.importCsv(request.getInputStream()), HttpStatus.OK);
+    }
+
+    // 401 for a wrong password and for an unknown email alike
+    @PostMapping("/verify")
+    public CompletableFuture<ResponseEntity<VerificationResult>> verifyPassword(@Valid @RequestBody VerificationRequest request) {
+        return accountService.verifyPasswordAsync(request.email(), request.password())
+                .thenApply(result -> new ResponseEntity<>(result, result.verified() ? HttpStatus.OK : HttpStatus.UNAUTHORIZED));
     }
 
+    // A matching If-None-Match is answered with 304 by Spring before the body is serialized
     @GetMapping("/{id}")
-    public ResponseEntity<Account> getAccount(@PathVariable Long id) {
-        Account account = accountService.getAccountById(id);
+    public ResponseEntity<AccountView> getAccount(@PathVariable Long id) {
+        AccountView account = accountService.getAccountById(id);
         if (account != null) {
-            return new ResponseEntity<>(account, HttpStatus.OK);
+            return ResponseEntity.ok().eTag(ETags.of(account.version())).body(account);
         } else {
             return new ResponseEntity<>(HttpStatus.NOT_FOUND);
         }
     }
 
+    @PostMapping("/lookup")
+    public ResponseEntity<AccountLookup> lookupAccounts(@RequestBody List<Long> ids) {
+        AccountLookup lookup = accountService.getAccountsByIds(ids);
+        return new ResponseEntity<>(lookup, HttpStatus.OK);
+    }
+
     @GetMapping
-    public ResponseEntity<List<Account>> getAllAccounts() {
-        List<Account> accounts = accountService.getAllAccounts();
-        return new ResponseEntity<>(accounts, HttpStatus.OK);
+    public ResponseEntity<AccountPage> getAllAccounts(@RequestParam(required = false) Long after,
+            @RequestParam(defaultValue = "" + AccountService.DEFAULT_PAGE_SIZE) int limit) {
+        AccountPage page = accountService.getAccounts(after, limit);
+        return new ResponseEntity<>(page, HttpStatus.OK);
 
     }
 
-    @PutMapping("/{id}")
-    public ResponseEntity<Account> updateAccount(@PathVariable
-            Long id, @Valid @RequestBody Account updatedAccount) {
-        Account account = accountService.updateAccount(id, updatedAccount);
+    @GetMapping("/search")
+    public ResponseEntity<AccountSearchResult> searchAccounts(@RequestParam String q,
+            @RequestParam(defaultValue = "" + AccountService.DEFAULT_SEARCH_LIMIT) int limit) {
+        return new ResponseEntity<>(accountService.searchAccounts(q, limit), HttpStatus.OK);
+    }
+
+    @GetMapping("/by-email")
+    public ResponseEntity<AccountView> getAccountByEmail(@RequestParam String email) {
+        AccountView account = accountService.getAccountByEmail(email);
         if (account != null) {
             return new ResponseEntity<>(account, HttpStatus.OK);
         } else {
@@ -54,20 +114,46 @@ public class AccountController {
         }
     }
 
-    @PatchMapping("/{id}")
-    public ResponseEntity<Account> patchAccount(@PathVariable Long id, @Valid @RequestBody Account updatedAccount) {
-        Account account = accountService.patchAccount(id, updatedAccount);
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public void exportAccounts(HttpServletResponse response) throws IOException {
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        accountService.exportAccounts(response.getOutputStream());
+    }
+
+    @PutMapping("/{id}")
+    public ResponseEntity<AccountView> updateAccount(@PathVariable
+            Long id, @Valid @RequestBody Account updatedAccount,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        AccountView account = accountService.updateAccount(id, updatedAccount, ETags.parseIfMatch(ifMatch));
         if (account != null) {
-            return new ResponseEntity<>(account, HttpStatus.OK);
+            return ResponseEntity.ok().eTag(ETags.of(account.version())).body(account);
         } else {
             return new ResponseEntity<>(HttpStatus.NOT_FOUND);
         }
     }
 
+    @PatchMapping("/{id}")
+    public CompletableFuture<ResponseEntity<AccountView>> patchAccount(@PathVariable Long id, @Valid @RequestBody Account updatedAccount,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        return accountService.patchAccountAsync(id, updatedAccount, ETags.parseIfMatch(ifMatch)).thenApply(account -> {
+            if (account != null) {
+                return ResponseEntity.ok().eTag(ETags.of(account.version())).body(account);
+            } else {
+                return new ResponseEntity<AccountView>(HttpStatus.NOT_FOUND);
+            }
+        });
+    }
+
     @DeleteMapping("/{id}")
-    public ResponseEntity<Object> deleteAccount(@PathVariable Long id) {
-        accountService.deleteAccount(id);
-        return CustomResponsePojo.generateResponse("Account Successfully Deleted", HttpStatus.OK);
+    @ApiResponse(responseCode = "200", content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+            schema = @Schema(implementation = CustomResponsePojo.class)))
+    @ApiResponse(responseCode = "404", content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+            schema = @Schema(implementation = CustomResponsePojo.class)))
+    public ResponseEntity<byte[]> deleteAccount(@PathVariable Long id) {
+        if (!accountService.deleteAccount(id)) {
+            return CustomResponsePojo.ACCOUNT_NOT_FOUND;
+        }
+        return CustomResponsePojo.ACCOUNT_DELETED;
     }
 
 }
\ No newline at end of file
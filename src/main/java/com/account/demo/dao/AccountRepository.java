@@ -1,12 +1,80 @@
 package com.account.demo.dao;
 
 import com.account.demo.model.Account;
+import com.account.demo.model.AccountCredentials;
+import com.account.demo.model.AccountView;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface AccountRepository extends JpaRepository<Account, Long> {
 
+    @Query("select new com.account.demo.model.AccountView(a.id, a.name, a.email, a.version) from Account a where a.id = :id")
+    Optional<AccountView> findViewById(@Param("id") Long id);
+
+    // Keyset page: rows strictly after the given id, in id order, bounded by limit
+    @Query("select new com.account.demo.model.AccountView(a.id, a.name, a.email, a.version) from Account a "
+            + "where a.id > :id order by a.id")
+    List<AccountView> findViewsByIdGreaterThan(@Param("id") Long id, Limit limit);
+
+    // Forward-only cursor over the whole table; must be consumed inside a transaction and closed
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + AccountStore.EXPORT_FETCH_SIZE))
+    @Query("select new com.account.demo.model.AccountView(a.id, a.name, a.email, a.version) from Account a order by a.id")
+    Stream<AccountView> streamAllViews();
+
+    // Callers keep the id list short (see AccountService.LOOKUP_CHUNK_SIZE) so the IN clause stays bounded
+    @Query("select new com.account.demo.model.AccountView(a.id, a.name, a.email, a.version) from Account a where a.id in :ids")
+    List<AccountView> findViewsByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("select new com.account.demo.model.AccountView(a.id, a.name, a.email, a.version) from Account a where a.email = :email")
+    Optional<AccountView> findViewByEmail(@Param("email") String email);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + AccountStore.EXPORT_FETCH_SIZE))
+    @Query("select a.email from Account a")
+    Stream<String> streamAllEmails();
+
+    boolean existsByEmail(String email);
+
+    @Query("select new com.account.demo.model.AccountCredentials(a.id, a.password, a.version) from Account a where a.email = :email")
+    Optional<AccountCredentials> findCredentialsByEmail(@Param("email") String email);
+
+
+    @Query("select a.version from Account a where a.id = :id")
+    Optional<Long> findVersionById(@Param("id") Long id);
+
+    // Single-statement writes: no load, no dirty checking. Each returns the affected row count and
+    // bumps the version; a non-null expectedVersion makes the write conditional on it.
+
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("update Account a set a.name = :name, a.email = :email, a.version = a.version + 1 "
+            + "where a.id = :id and (:expectedVersion is null or a.version = :expectedVersion)")
+    int updateNameAndEmail(@Param("id") Long id, @Param("name") String name, @Param("email") String email,
+                           @Param("expectedVersion") Long expectedVersion);
+
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("update Account a set a.password = :password, a.version = a.version + 1 "
+            + "where a.id = :id and (:expectedVersion is null or a.version = :expectedVersion)")
+    int updatePassword(@Param("id") Long id, @Param("password") String password,
+                       @Param("expectedVersion") Long expectedVersion);
 
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("delete from Account a where a.id = :id")
+    int deleteAccountById(@Param("id") Long id);
 
-}
\ No newline at end of file
+}
@@ -0,0 +1,67 @@
+package com.account.demo.dao;
+
+import com.account.demo.model.Account;
+import com.account.demo.model.AccountCredentials;
+import com.account.demo.model.AccountView;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+/**
+ * Storage behind AccountService. Selected with {@code account.store}: {@code jpa} (default,
+ * {@link JpaAccountStore}) or {@code memory} ({@link InMemoryAccountStore}).
+ * <p>
+ * Implementations enforce unique emails and keep a version per account that every write bumps.
+ * Constraint violations surface as Spring's {@link org.springframework.dao.DataAccessException}
+ * hierarchy, whatever the backend.
+ */
+public interface AccountStore {
+
+    // Rows per fetch when walking the whole store; also the export flush interval
+    int EXPORT_FETCH_SIZE = 500;
+
+    /** Inserts a new account, assigning its id and initial version on the passed instance. */
+    Account save(Account account);
+
+    /** Inserts all accounts or none of them. */
+    List<Account> saveAll(List<Account> accounts);
+
+    Optional<Account> findById(Long id);
+
+    Optional<AccountView> findViewById(Long id);
+
+    List<AccountView> findViewsByIdIn(Collection<Long> ids);
+
+    /** Keyset page: accounts with an id strictly greater than {@code after}, in id order. May be served by a read replica. */
+    List<AccountView> findViewsByIdGreaterThan(long after, int limit);
+
+    Optional<AccountView> findViewByEmail(String email);
+
+    boolean existsByEmail(String email);
+
+    /** Id, version and password hash only; for verifying a password without loading the entity. */
+    Optional<AccountCredentials> findCredentialsByEmail(String email);
+
+    Optional<Long> findVersionById(Long id);
+
+    // Writes return the affected row count; a non-null expectedVersion makes them conditional on it
+
+    int updateNameAndEmail(Long id, String name, String email, Long expectedVersion);
+
+    int updatePassword(Long id, String password, Long expectedVersion);
+
+    int deleteAccountById(Long id);
+
+    void forEachEmail(Consumer<String> sink);
+
+    /** Feeds every account to {@code sink} in id order; returns the number of accounts visited. */
+    long forEachView(ViewSink sink) throws IOException;
+
+    @FunctionalInterface
+    interface ViewSink {
+        void accept(AccountView view) throws IOException;
+    }
+}
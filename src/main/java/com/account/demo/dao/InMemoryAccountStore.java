@@ -0,0 +1,443 @@
+package com.account.demo.dao;
+
+import com.account.demo.model.Account;
+import com.account.demo.model.AccountCredentials;
+import com.account.demo.model.AccountView;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * Heap-resident store for deployments that run without a database ({@code account.store=memory},
+ * usually through the {@code memory} profile).
+ * <p>
+ * Accounts live as immutable entries in a skip-list map keyed by id, so reads, id-ordered pages and
+ * exports never lock. A concurrent email-to-id index enforces unique emails: an email is claimed
+ * with {@code putIfAbsent} before the account becomes visible. Ids come from an atomic counter.
+ * Writes to an existing id take one of {@link #STRIPES} striped locks so the version check and the
+ * email index change happen together.
+ * <p>
+ * The whole store is written to a memory-mapped snapshot file every {@code snapshot-interval} (when
+ * anything changed) and on shutdown, and reloaded at startup. Writes made after the last snapshot
+ * are lost if the process dies.
+ */
+@Component
+@ConditionalOnProperty(name = "account.store", havingValue = "memory")
+public class InMemoryAccountStore implements AccountStore {
+
+    private static final Logger log = LoggerFactory.getLogger(InMemoryAccountStore.class);
+
+    static final int STRIPES = 64;
+
+    private static final int SNAPSHOT_MAGIC = 0x41434354; // "ACCT"
+
+    private static final int SNAPSHOT_FORMAT = 1;
+
+    private final ConcurrentSkipListMap<Long, Entry> accounts = new ConcurrentSkipListMap<>();
+
+    private final ConcurrentHashMap<String, Long> idsByEmail = new ConcurrentHashMap<>();
+
+    private final AtomicLong lastId = new AtomicLong();
+
+    private final ReentrantLock[] locks = new ReentrantLock[STRIPES];
+
+    // Bumped on every write; a snapshot is skipped when it has not moved since the last one
+    private final AtomicLong modifications = new AtomicLong();
+
+    private volatile long snapshotModifications;
+
+    private final ReentrantLock snapshotLock = new ReentrantLock();
+
+    private final Path snapshotPath;
+
+    private final ScheduledExecutorService snapshotScheduler;
+
+    public InMemoryAccountStore(@Value("${account.store.memory.snapshot-path:}") String snapshotPath,
+                                @Value("${account.store.memory.snapshot-interval:30s}") Duration snapshotInterval) {
+        for (int i = 0; i < STRIPES; i++) {
+            locks[i] = new ReentrantLock();
+        }
+        this.snapshotPath = snapshotPath.isBlank() ? null : Path.of(snapshotPath);
+        if (this.snapshotPath != null) {
+            restore();
+        }
+        if (this.snapshotPath != null && !snapshotInterval.isZero()) {
+            long millis = snapshotInterval.toMillis();
+            snapshotScheduler = Executors.newSingleThreadScheduledExecutor(new CustomizableThreadFactory("account-snapshot-"));
+            snapshotScheduler.scheduleWithFixedDelay(this::snapshotQuietly, millis, millis, TimeUnit.MILLISECONDS);
+        } else {
+            snapshotScheduler = null;
+        }
+    }
+
+    @Override
+    public Account save(Account account) {
+        if (account.getId() == null) {
+            Entry entry = new Entry(lastId.incrementAndGet(), account.getName(), account.getEmail(), account.getPassword(), 0L);
+            claimEmail(entry.email(), entry.id());
+            accounts.put(entry.id(), entry);
+            modifications.incrementAndGet();
+            account.setId(entry.id());
+            account.setVersion(entry.version());
+            return account;
+        }
+        // A previously loaded account being written back: same optimistic check as JPA's @Version
+        Long id = account.getId();
+        ReentrantLock lock = lockFor(id);
+        lock.lock();
+        try {
+            Entry current = accounts.get(id);
+            if (current == null || account.getVersion() == null || current.version() != account.getVersion()) {
+                throw new OptimisticLockingFailureException("Account " + id + " was changed or deleted concurrently");
+            }
+            Entry next = replace(current, account.getName(), account.getEmail(), account.getPassword());
+            account.setVersion(next.version());
+            return account;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public List<Account> saveAll(List<Account> batch) {
+        List<String> claimed = new ArrayList<>(batch.size());
+        long[] ids = new long[batch.size()];
+        try {
+            for (int i = 0; i < batch.size(); i++) {
+                ids[i] = lastId.incrementAndGet();
+                claimEmail(batch.get(i).getEmail(), ids[i]);
+                claimed.add(batch.get(i).getEmail());
+            }
+        } catch (DataIntegrityViolationException e) {
+            for (int i = 0; i < claimed.size(); i++) {
+                idsByEmail.remove(claimed.get(i), ids[i]);
+            }
+            throw e;
+        }
+        for (int i = 0; i < batch.size(); i++) {
+            Account account = batch.get(i);
+            accounts.put(ids[i], new Entry(ids[i], account.getName(), account.getEmail(), account.getPassword(), 0L));
+            account.setId(ids[i]);
+            account.setVersion(0L);
+        }
+        modifications.incrementAndGet();
+        return batch;
+    }
+
+    @Override
+    public Optional<Account> findById(Long id) {
+        return Optional.ofNullable(accounts.get(id)).map(Entry::toAccount);
+    }
+
+    @Override
+    public Optional<AccountView> findViewById(Long id) {
+        return Optional.ofNullable(accounts.get(id)).map(Entry::toView);
+    }
+
+    @Override
+    public List<AccountView> findViewsByIdIn(Collection<Long> ids) {
+        List<AccountView> views = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            Entry entry = accounts.get(id);
+            if (entry != null) {
+                views.add(entry.toView());
+            }
+        }
+        return views;
+    }
+
+    @Override
+    public List<AccountView> findViewsByIdGreaterThan(long after, int limit) {
+        List<AccountView> views = new ArrayList<>(Math.min(limit, accounts.size()));
+        for (Entry entry : accounts.tailMap(after, false).values()) {
+            if (views.size() == limit) {
+                break;
+            }
+            views.add(entry.toView());
+        }
+        return views;
+    }
+
+    @Override
+    public Optional<AccountView> findViewByEmail(String email) {
+        Long id = idsByEmail.get(email);
+        return id == null ? Optional.empty() : findViewById(id);
+    }
+
+    @Override
+    public boolean existsByEmail(String email) {
+        return idsByEmail.containsKey(email);
+    }
+
+    @Override
+    public Optional<AccountCredentials> findCredentialsByEmail(String email) {
+        Long id = idsByEmail.get(email);
+        Entry entry = id == null ? null : accounts.get(id);
+        return entry == null ? Optional.empty() : Optional.of(new AccountCredentials(entry.id(), entry.password(), entry.version()));
+    }
+
+    @Override
+    public Optional<Long> findVersionById(Long id) {
+        return Optional.ofNullable(accounts.get(id)).map(Entry::version);
+    }
+
+    @Override
+    public int updateNameAndEmail(Long id, String name, String email, Long expectedVersion) {
+        ReentrantLock lock = lockFor(id);
+        lock.lock();
+        try {
+            Entry current = matching(id, expectedVersion);
+            if (current == null) {
+                return 0;
+            }
+            replace(current, name, email, current.password());
+            return 1;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public int updatePassword(Long id, String password, Long expectedVersion) {
+        ReentrantLock lock = lockFor(id);
+        lock.lock();
+        try {
+            Entry current = matching(id, expectedVersion);
+            if (current == null) {
+                return 0;
+            }
+            replace(current, current.name(), current.email(), password);
+            return 1;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public int deleteAccountById(Long id) {
+        ReentrantLock lock = lockFor(id);
+        lock.lock();
+        try {
+            Entry removed = accounts.remove(id);
+            if (removed == null) {
+                return 0;
+            }
+            idsByEmail.remove(removed.email(), id);
+            modifications.incrementAndGet();
+            return 1;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void forEachEmail(Consumer<String> sink) {
+        idsByEmail.keySet().forEach(sink);
+    }
+
+    @Override
+    public long forEachView(ViewSink sink) throws IOException {
+        long count = 0;
+        for (Entry entry : accounts.values()) {
+            sink.accept(entry.toView());
+            count++;
+        }
+        return count;
+    }
+
+    int size() {
+        return accounts.size();
+    }
+
+    private ReentrantLock lockFor(Long id) {
+        return locks[Long.hashCode(id) & (STRIPES - 1)];
+    }
+
+    private Entry matching(Long id, Long expectedVersion) {
+        Entry current = accounts.get(id);
+        if (current == null || (expectedVersion != null && current.version() != expectedVersion)) {
+            return null;
+        }
+        return current;
+    }
+
+    // Caller holds the stripe lock for current.id()
+    private Entry replace(Entry current, String name, String email, String password) {
+        boolean emailChanged = !current.email().equals(email);
+        if (emailChanged) {
+            claimEmail(email, current.id());
+        }
+        Entry next = new Entry(current.id(), name, email, password, current.version() + 1);
+        accounts.put(next.id(), next);
+        if (emailChanged) {
+            idsByEmail.remove(current.email(), current.id());
+        }
+        modifications.incrementAndGet();
+        return next;
+    }
+
+    private void claimEmail(String email, long id) {
+        Long owner = idsByEmail.putIfAbsent(email, id);
+        if (owner != null && owner != id) {
+            throw new DataIntegrityViolationException("Email " + email + " is already registered");
+        }
+    }
+
+    /**
+     * Writes the current contents to the snapshot file. The file is written next to the target and
+     * moved over it, so a crash mid-write leaves the previous snapshot intact. Does nothing when
+     * snapshots are disabled or nothing changed since the last one.
+     */
+    public void snapshot() throws IOException {
+        if (snapshotPath == null) {
+            return;
+        }
+        snapshotLock.lock();
+        try {
+            long mark = modifications.get();
+            if (mark == snapshotModifications && Files.exists(snapshotPath)) {
+                return;
+            }
+            List<byte[]> fields = new ArrayList<>(accounts.size() * 3);
+            List<Entry> entries = new ArrayList<>(accounts.size());
+            long size = 4 + 4 + 8 + 4;
+            for (Entry entry : accounts.values()) {
+                entries.add(entry);
+                size += 8 + 8;
+                for (String field : new String[]{entry.name(), entry.email(), entry.password()}) {
+                    byte[] bytes = field == null ? null : field.getBytes(StandardCharsets.UTF_8);
+                    fields.add(bytes);
+                    size += 4 + (bytes == null ? 0 : bytes.length);
+                }
+            }
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException("Snapshot of " + size + " bytes exceeds a single mapping");
+            }
+            // Read after the scan so the restored counter is past every id the scan could have seen
+            long idMark = lastId.get();
+
+            Path directory = snapshotPath.toAbsolutePath().getParent();
+            if (directory != null) {
+                Files.createDirectories(directory);
+            }
+            Path temp = snapshotPath.resolveSibling(snapshotPath.getFileName() + ".tmp");
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                    StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+                buffer.putInt(SNAPSHOT_MAGIC).putInt(SNAPSHOT_FORMAT).putLong(idMark).putInt(entries.size());
+                int field = 0;
+                for (Entry entry : entries) {
+                    buffer.putLong(entry.id()).putLong(entry.version());
+                    for (int i = 0; i < 3; i++) {
+                        byte[] bytes = fields.get(field++);
+                        buffer.putInt(bytes == null ? -1 : bytes.length);
+                        if (bytes != null) {
+                            buffer.put(bytes);
+                        }
+                    }
+                }
+                buffer.force();
+            }
+            Files.move(temp, snapshotPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            snapshotModifications = mark;
+            log.debug("Wrote {} accounts to {}", entries.size(), snapshotPath);
+        } finally {
+            snapshotLock.unlock();
+        }
+    }
+
+    private void snapshotQuietly() {
+        try {
+            snapshot();
+        } catch (IOException | RuntimeException e) {
+            log.warn("Account snapshot to {} failed", snapshotPath, e);
+        }
+    }
+
+    private void restore() {
+        if (!Files.exists(snapshotPath)) {
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(snapshotPath, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.getInt() != SNAPSHOT_MAGIC || buffer.getInt() != SNAPSHOT_FORMAT) {
+                throw new IOException(snapshotPath + " is not an account snapshot");
+            }
+            long idMark = buffer.getLong();
+            int count = buffer.getInt();
+            for (int i = 0; i < count; i++) {
+                long id = buffer.getLong();
+                long version = buffer.getLong();
+                Entry entry = new Entry(id, readString(buffer), readString(buffer), readString(buffer), version);
+                accounts.put(id, entry);
+                idsByEmail.put(entry.email(), id);
+            }
+            lastId.set(Math.max(idMark, accounts.isEmpty() ? 0L : accounts.lastKey()));
+            snapshotModifications = modifications.get();
+            log.info("Restored {} accounts from {}", count, snapshotPath);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot restore accounts from " + snapshotPath, e);
+        }
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        if (snapshotScheduler != null) {
+            snapshotScheduler.shutdown();
+        }
+        snapshot();
+    }
+
+    private record Entry(long id, String name, String email, String password, long version) {
+
+        AccountView toView() {
+            return new AccountView(id, name, email, version);
+        }
+
+        Account toAccount() {
+            Account account = new Account(id, name, email, password);
+            account.setVersion(version);
+            return account;
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package com.account.demo.dao;
+
+import com.account.demo.model.Account;
+import com.account.demo.model.AccountCredentials;
+import com.account.demo.model.AccountView;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Default store: Spring Data JPA over the configured DataSource. Reads use the AccountView
+ * projections, writes are single UPDATE/DELETE statements, and batches go out as JDBC batches.
+ * With read replicas configured, page reads run as read-only transactions and are served by a
+ * replica. Everything else stays on the primary: single-account views feed the account cache and
+ * ETags, which must not pick up a row a lagging replica has not updated yet, and the full-table
+ * walks (export, email filter rebuild) must see every committed account.
+ */
+@Component
+@ConditionalOnProperty(name = "account.store", havingValue = "jpa", matchIfMissing = true)
+public class JpaAccountStore implements AccountStore {
+
+    private final AccountRepository accountRepository;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public JpaAccountStore(AccountRepository accountRepository) {
+        this.accountRepository = accountRepository;
+    }
+
+    @Override
+    public Account save(Account account) {
+        return accountRepository.save(account);
+    }
+
+    // One transaction per call; the flush sends the inserts as JDBC batches and the clear keeps
+    // the persistence context from growing across a large import
+    @Override
+    @Transactional
+    public List<Account> saveAll(List<Account> accounts) {
+        List<Account> saved = accountRepository.saveAll(accounts);
+        accountRepository.flush();
+        entityManager.clear();
+        return saved;
+    }
+
+    @Override
+    public Optional<Account> findById(Long id) {
+        return accountRepository.findById(id);
+    }
+
+    @Override
+    public Optional<AccountView> findViewById(Long id) {
+        return accountRepository.findViewById(id);
+    }
+
+    @Override
+    public List<AccountView> findViewsByIdIn(Collection<Long> ids) {
+        return accountRepository.findViewsByIdIn(ids);
+    }
+
+    // Read-only transactions are what ReadReplicaConfiguration routes to replicas
+    @Override
+    @Transactional(readOnly = true)
+    public List<AccountView> findViewsByIdGreaterThan(long after, int limit) {
+        return accountRepository.findViewsByIdGreaterThan(after, Limit.of(limit));
+    }
+
+    @Override
+    public Optional<AccountView> findViewByEmail(String email) {
+        return accountRepository.findViewByEmail(email);
+    }
+
+    @Override
+    public boolean existsByEmail(String email) {
+        return accountRepository.existsByEmail(email);
+    }
+
+    @Override
+    public Optional<AccountCredentials> findCredentialsByEmail(String email) {
+        return accountRepository.findCredentialsByEmail(email);
+    }
+
+    @Override
+    public Optional<Long> findVersionById(Long id) {
+        return accountRepository.findVersionById(id);
+    }
+
+    @Override
+    public int updateNameAndEmail(Long id, String name, String email, Long expectedVersion) {
+        return accountRepository.updateNameAndEmail(id, name, email, expectedVersion);
+    }
+
+    @Override
+    public int updatePassword(Long id, String password, Long expectedVersion) {
+        return accountRepository.updatePassword(id, password, expectedVersion);
+    }
+
+    @Override
+    public int deleteAccountById(Long id) {
+        return accountRepository.deleteAccountById(id);
+    }
+
+    // Read-write on purpose, like forEachView: a read-only transaction would go to a replica
+    @Override
+    @Transactional
+    public void forEachEmail(Consumer<String> sink) {
+        try (Stream<String> emails = accountRepository.streamAllEmails()) {
+            emails.forEach(sink);
+        }
+    }
+
+    // The cursor stays open for the whole walk, hence the transaction around it
+    @Override
+    @Transactional
+    public long forEachView(ViewSink sink) throws IOException {
+        long count = 0;
+        try (Stream<AccountView> accounts = accountRepository.streamAllViews()) {
+            Iterator<AccountView> iterator = accounts.iterator();
+            while (iterator.hasNext()) {
+                sink.accept(iterator.next());
+                count++;
+            }
+        }
+        return count;
+    }
+}
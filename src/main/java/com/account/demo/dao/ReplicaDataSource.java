@@ -0,0 +1,151 @@
+package com.account.demo.dao;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Connections for read-only transactions, taken round-robin from the replicas that are currently
+ * healthy. A replica is marked down when it fails to hand out a connection or fails the periodic
+ * probe ({@link Connection#isValid(int)}), and marked up again by the next successful probe. When
+ * no replica is healthy, connections come from the primary, so reads degrade to the primary's
+ * capacity instead of failing.
+ * <p>
+ * Only the choice of connection is covered: a replica that fails in the middle of a query fails
+ * that query, and replication lag is not measured, so only reads that may lag a write belong here
+ * (see {@link JpaAccountStore}).
+ */
+public class ReplicaDataSource extends AbstractDataSource implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicaDataSource.class);
+
+    private final DataSource primary;
+
+    private final Replica[] replicas;
+
+    private final AtomicInteger next = new AtomicInteger();
+
+    private final int probeTimeoutSeconds;
+
+    private final ScheduledExecutorService prober;
+
+    private final Counter primaryFallbacks;
+
+    public ReplicaDataSource(DataSource primary, List<DataSource> replicas, Duration probeInterval, MeterRegistry registry) {
+        this.primary = primary;
+        this.replicas = new Replica[replicas.size()];
+        for (int i = 0; i < replicas.size(); i++) {
+            this.replicas[i] = new Replica("replica-" + i, replicas.get(i), connectionCounter(registry, "replica-" + i));
+        }
+        this.probeTimeoutSeconds = (int) Math.max(1, probeInterval.toSeconds() / 2);
+        this.primaryFallbacks = connectionCounter(registry, "primary");
+        Gauge.builder("account.datasource.replicas.healthy", this, ReplicaDataSource::healthyCount)
+                .description("Read replicas currently considered healthy")
+                .register(registry);
+        this.prober = Executors.newSingleThreadScheduledExecutor(new CustomizableThreadFactory("replica-probe-"));
+        prober.scheduleWithFixedDelay(this::probe, 0, Math.max(probeInterval.toMillis(), 100), TimeUnit.MILLISECONDS);
+    }
+
+    private static Counter connectionCounter(MeterRegistry registry, String target) {
+        return Counter.builder("account.datasource.read.connections")
+                .description("Connections handed out for read-only transactions, by the database that served them")
+                .tag("target", target)
+                .register(registry);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        int start = next.getAndIncrement();
+        for (int i = 0; i < replicas.length; i++) {
+            Replica replica = replicas[Math.floorMod(start + i, replicas.length)];
+            if (!replica.healthy) {
+                continue;
+            }
+            try {
+                Connection connection = replica.dataSource.getConnection();
+                replica.connections.increment();
+                return connection;
+            } catch (SQLException e) {
+                markDown(replica, e);
+            }
+        }
+        primaryFallbacks.increment();
+        return primary.getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        throw new SQLFeatureNotSupportedException("Replica credentials are configured per pool");
+    }
+
+    void probe() {
+        for (Replica replica : replicas) {
+            try (Connection connection = replica.dataSource.getConnection()) {
+                if (!connection.isValid(probeTimeoutSeconds)) {
+                    throw new SQLException("Connection is not valid");
+                }
+                if (!replica.healthy) {
+                    log.info("Read replica {} is back up", replica.name);
+                    replica.healthy = true;
+                }
+            } catch (SQLException | RuntimeException e) {
+                markDown(replica, e);
+            }
+        }
+    }
+
+    private static void markDown(Replica replica, Exception cause) {
+        if (replica.healthy) {
+            log.warn("Read replica {} is down, reads go to the other replicas or the primary: {}", replica.name, cause.toString());
+            replica.healthy = false;
+        }
+    }
+
+    int healthyCount() {
+        return (int) Arrays.stream(replicas).filter(replica -> replica.healthy).count();
+    }
+
+    @Override
+    public void close() throws Exception {
+        prober.shutdownNow();
+        for (Replica replica : replicas) {
+            if (replica.dataSource instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+    }
+
+    private static final class Replica {
+
+        final String name;
+
+        final DataSource dataSource;
+
+        final Counter connections;
+
+        // Optimistically up until the first probe says otherwise
+        volatile boolean healthy = true;
+
+        Replica(String name, DataSource dataSource, Counter connections) {
+            this.name = name;
+            this.dataSource = dataSource;
+            this.connections = connections;
+        }
+    }
+}
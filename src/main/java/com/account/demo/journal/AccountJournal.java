@@ -0,0 +1,317 @@
+package com.account.demo.journal;
+
+import com.account.demo.model.AccountView;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only, binary-framed log of account mutations ({@code account.journal.*}, off by default).
+ * <p>
+ * {@link #append(JournalEntry)} only enqueues, so request threads never wait on the disk. A single
+ * writer thread drains the queue in groups, encodes each group into one buffer, issues one write,
+ * and then syncs according to {@link FsyncPolicy}: after every group ({@code always}), at most
+ * every {@code fsync-interval} ({@code interval}), or never, leaving it to the OS ({@code never}).
+ * The queue is bounded; a full queue makes appends wait, trading latency for a complete history.
+ * <p>
+ * Records are appended after the store commits, so concurrent writes to one account may be
+ * journaled out of order; replay resolves that with the version each record carries. Each opening
+ * writes a {@link JournalEntry.Type#OPENED} marker first, so replay can tell runs apart. A torn frame
+ * left by a crash is cut off when the journal is reopened; damage with intact data after it is never
+ * cut off: the file is moved aside as {@code <name>.corrupt-<millis>} and a new journal is started.
+ * See {@link JournalReplay}.
+ */
+@Component
+public class AccountJournal {
+
+    private static final Logger log = LoggerFactory.getLogger(AccountJournal.class);
+
+    public enum FsyncPolicy { ALWAYS, INTERVAL, NEVER }
+
+    static final int MAX_GROUP_SIZE = 1024;
+
+    private static final Object CLOSE = new Object();
+
+    private final boolean enabled;
+
+    private final FsyncPolicy fsyncPolicy;
+
+    private final long fsyncIntervalNanos;
+
+    private final BlockingQueue<Object> queue;
+
+    private final FileChannel channel;
+
+    private final Thread writer;
+
+    private ByteBuffer buffer = ByteBuffer.allocateDirect(1 << 16);
+
+    private final CRC32 crc = new CRC32();
+
+    private final Counter records;
+
+    private final Counter failures;
+
+    private final Timer writeTimer;
+
+    // End of the last group that was written completely; a failed group is cut back to it
+    private long committedLength;
+
+    public AccountJournal(@Value("${account.journal.enabled:false}") boolean enabled,
+                          @Value("${account.journal.path:data/accounts.journal}") String path,
+                          @Value("${account.journal.fsync:interval}") String fsync,
+                          @Value("${account.journal.fsync-interval:100ms}") Duration fsyncInterval,
+                          @Value("${account.journal.queue-capacity:65536}") int queueCapacity,
+                          MeterRegistry registry) {
+        this.enabled = enabled;
+        this.fsyncPolicy = FsyncPolicy.valueOf(fsync.trim().toUpperCase(Locale.ROOT));
+        this.fsyncIntervalNanos = fsyncInterval.toNanos();
+        if (!enabled) {
+            this.queue = null;
+            this.channel = null;
+            this.writer = null;
+            this.records = null;
+            this.failures = null;
+            this.writeTimer = null;
+            return;
+        }
+        this.queue = new LinkedBlockingQueue<>(queueCapacity);
+        try {
+            this.channel = open(Path.of(path));
+            this.committedLength = channel.position();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open account journal " + path, e);
+        }
+        this.records = Counter.builder("account.journal.records")
+                .description("Records written to the account journal")
+                .register(registry);
+        this.failures = Counter.builder("account.journal.failures")
+                .description("Journal group writes that failed")
+                .register(registry);
+        this.writeTimer = Timer.builder("account.journal.write")
+                .description("Time to write one group of journal records, including any fsync")
+                .register(registry);
+        Gauge.builder("account.journal.queue", queue, BlockingQueue::size)
+                .description("Records waiting to be written to the account journal")
+                .register(registry);
+        this.writer = new CustomizableThreadFactory("account-journal-").newThread(this::run);
+        writer.start();
+        append(JournalEntry.opened());
+    }
+
+    // Opens for appending, first cutting off a torn frame that a crash may have left at the end
+    private static FileChannel open(Path path) throws IOException {
+        Path directory = path.toAbsolutePath().getParent();
+        if (directory != null) {
+            Files.createDirectories(directory);
+        }
+        long validLength = 0;
+        if (Files.exists(path)) {
+            boolean damagedInside;
+            try (JournalReader reader = new JournalReader(path)) {
+                while (reader.next() != null) {
+                    // scanning for the end of the intact part
+                }
+                validLength = reader.validLength();
+                damagedInside = reader.isCorrupt() && !reader.isTornTail();
+            }
+            if (damagedInside) {
+                // Truncating would throw away the intact records after the damage
+                Path aside = path.resolveSibling(path.getFileName() + ".corrupt-" + System.currentTimeMillis());
+                Files.move(path, aside);
+                log.error("Account journal {} is corrupt at byte {} with more data after it; moved it to {} and starting a new journal",
+                        path, validLength, aside);
+                validLength = 0;
+            }
+        }
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        if (channel.size() > validLength) {
+            log.warn("Truncating account journal {} from {} to {} bytes after a torn write", path, channel.size(), validLength);
+            channel.truncate(validLength);
+        }
+        channel.position(validLength);
+        return channel;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void created(AccountView account) {
+        if (enabled) {
+            append(JournalEntry.of(JournalEntry.Type.CREATED, account));
+        }
+    }
+
+    public void updated(AccountView account) {
+        if (enabled && account != null) {
+            append(JournalEntry.of(JournalEntry.Type.UPDATED, account));
+        }
+    }
+
+    public void passwordChanged(AccountView account) {
+        if (enabled && account != null) {
+            append(JournalEntry.of(JournalEntry.Type.PASSWORD_CHANGED, account));
+        }
+    }
+
+    public void deleted(Long id) {
+        if (enabled) {
+            append(JournalEntry.deleted(id));
+        }
+    }
+
+    public void append(JournalEntry entry) {
+        if (!enabled) {
+            return;
+        }
+        try {
+            queue.put(entry);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("Interrupted while journaling {} of account {}", entry.type(), entry.id());
+        }
+    }
+
+    /** Waits until everything appended so far is written and synced, whatever the policy. */
+    public void flush() {
+        if (!enabled) {
+            return;
+        }
+        CompletableFuture<Void> barrier = new CompletableFuture<>();
+        try {
+            queue.put(barrier);
+            barrier.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void run() {
+        List<Object> group = new ArrayList<>(MAX_GROUP_SIZE);
+        List<CompletableFuture<Void>> barriers = new ArrayList<>();
+        long pollNanos = fsyncPolicy == FsyncPolicy.INTERVAL ? fsyncIntervalNanos : TimeUnit.SECONDS.toNanos(1);
+        long lastSync = System.nanoTime();
+        boolean unsynced = false;
+        boolean closing = false;
+        while (!closing) {
+            try {
+                Object first = queue.poll(pollNanos, TimeUnit.NANOSECONDS);
+                if (first != null) {
+                    group.add(first);
+                    queue.drainTo(group, MAX_GROUP_SIZE - 1);
+                }
+            } catch (InterruptedException e) {
+                closing = true;
+            }
+            int written = 0;
+            long start = System.nanoTime();
+            try {
+                for (Object item : group) {
+                    if (item instanceof JournalEntry entry) {
+                        encode(entry);
+                        written++;
+                    } else if (item == CLOSE) {
+                        closing = true;
+                    } else {
+                        @SuppressWarnings("unchecked")
+                        CompletableFuture<Void> barrier = (CompletableFuture<Void>) item;
+                        barriers.add(barrier);
+                    }
+                }
+                drain();
+                committedLength = channel.position();
+                unsynced |= written > 0;
+                long now = System.nanoTime();
+                boolean sync = unsynced && (fsyncPolicy == FsyncPolicy.ALWAYS || !barriers.isEmpty() || closing
+                        || (fsyncPolicy == FsyncPolicy.INTERVAL && now - lastSync >= fsyncIntervalNanos));
+                if (sync) {
+                    channel.force(false);
+                    unsynced = false;
+                    lastSync = now;
+                }
+                if (written > 0) {
+                    records.increment(written);
+                    writeTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                }
+            } catch (IOException | RuntimeException e) {
+                failures.increment();
+                log.error("Failed to write {} account journal records", group.size(), e);
+                rollBack();
+            }
+            barriers.forEach(barrier -> barrier.complete(null));
+            barriers.clear();
+            group.clear();
+        }
+    }
+
+    private void encode(JournalEntry entry) throws IOException {
+        int bound = 8 + entry.maxEncodedSize();
+        if (buffer.remaining() < bound) {
+            drain();
+            if (buffer.capacity() < bound) {
+                buffer = ByteBuffer.allocateDirect(Integer.highestOneBit(bound) << 1);
+            }
+        }
+        int frameStart = buffer.position();
+        buffer.position(frameStart + 8);
+        entry.writeTo(buffer);
+        int payloadLength = buffer.position() - frameStart - 8;
+        crc.reset();
+        crc.update(buffer.slice(frameStart + 8, payloadLength));
+        buffer.putInt(frameStart, payloadLength).putInt(frameStart + 4, (int) crc.getValue());
+    }
+
+    // Drops a partly written group so the records after it still follow an intact frame
+    private void rollBack() {
+        buffer.clear();
+        try {
+            channel.truncate(committedLength);
+            channel.position(committedLength);
+        } catch (IOException e) {
+            log.error("Cannot roll the account journal back to {} bytes", committedLength, e);
+        }
+    }
+
+    private void drain() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    @PreDestroy
+    public void close() throws IOException, InterruptedException {
+        if (!enabled) {
+            return;
+        }
+        queue.put(CLOSE);
+        writer.join();
+        channel.close();
+    }
+}
@@ -0,0 +1,82 @@
+package com.account.demo.journal;
+
+import com.account.demo.model.AccountView;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * One account mutation as recorded in the journal. Every record except {@link Type#DELETED} and
+ * {@link Type#OPENED} carries the account's full public state after the change, so replay never
+ * needs earlier records to apply a later one. Password hashes are never journaled; a password
+ * change is recorded by its version. {@link Type#OPENED} carries no account: it marks the start of
+ * a run, i.e. the journal being opened by a starting application.
+ */
+public record JournalEntry(Type type, long timestamp, long id, long version, String name, String email) {
+
+    public enum Type {
+        // New types go at the end: the ordinal is what is written
+        CREATED, UPDATED, PASSWORD_CHANGED, DELETED, OPENED;
+
+        private static final Type[] VALUES = values();
+    }
+
+    // type + timestamp + id + version + two length prefixes
+    static final int FIXED_SIZE = 1 + 8 + 8 + 8 + 4 + 4;
+
+    public static JournalEntry of(Type type, AccountView view) {
+        long version = view.version() == null ? 0L : view.version();
+        return new JournalEntry(type, System.currentTimeMillis(), view.id(), version, view.name(), view.email());
+    }
+
+    public static JournalEntry deleted(long id) {
+        return new JournalEntry(Type.DELETED, System.currentTimeMillis(), id, 0L, null, null);
+    }
+
+    public static JournalEntry opened() {
+        return new JournalEntry(Type.OPENED, System.currentTimeMillis(), 0L, 0L, null, null);
+    }
+
+    public AccountView toView() {
+        return new AccountView(id, name, email, version);
+    }
+
+    // Upper bound of the encoded payload; UTF-8 needs at most three bytes per UTF-16 char
+    int maxEncodedSize() {
+        return FIXED_SIZE + 3 * (length(name) + length(email));
+    }
+
+    void writeTo(ByteBuffer buffer) {
+        buffer.put((byte) type.ordinal()).putLong(timestamp).putLong(id).putLong(version);
+        writeString(buffer, name);
+        writeString(buffer, email);
+    }
+
+    static JournalEntry readFrom(ByteBuffer buffer) {
+        Type type = Type.VALUES[buffer.get()];
+        return new JournalEntry(type, buffer.getLong(), buffer.getLong(), buffer.getLong(), readString(buffer), readString(buffer));
+    }
+
+    private static int length(String value) {
+        return value == null ? 0 : value.length();
+    }
+
+    private static void writeString(ByteBuffer buffer, String value) {
+        if (value == null) {
+            buffer.putInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        buffer.putInt(bytes.length).put(bytes);
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
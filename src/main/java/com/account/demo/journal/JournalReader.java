@@ -0,0 +1,100 @@
+package com.account.demo.journal;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.CRC32;
+
+/**
+ * Sequential reader over a journal file. Each frame is {@code [int length][int crc32][payload]}.
+ * Reading stops at the first incomplete or corrupt frame; {@link #validLength()} then tells how many
+ * bytes of the file are intact, and {@link #isTornTail()} whether the damage is what a crash in the
+ * middle of an append leaves behind (nothing but zeros after it) or data lost in the middle.
+ */
+public class JournalReader implements Closeable {
+
+    // Far above any real record; a larger length means the header itself is garbage
+    static final int MAX_FRAME_SIZE = 1 << 20;
+
+    private final DataInputStream in;
+
+    private final CRC32 crc = new CRC32();
+
+    private long validLength;
+
+    private boolean corrupt;
+
+    private boolean tornTail;
+
+    public JournalReader(Path path) throws IOException {
+        this.in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path), 1 << 16));
+    }
+
+    /** Returns the next record, or null at the end of the intact part of the file. */
+    public JournalEntry next() throws IOException {
+        if (corrupt) {
+            return null;
+        }
+        int length;
+        try {
+            length = in.readInt();
+        } catch (EOFException e) {
+            return null;
+        }
+        try {
+            int checksum = in.readInt();
+            if (length < JournalEntry.FIXED_SIZE || length > MAX_FRAME_SIZE) {
+                return stop();
+            }
+            byte[] payload = new byte[length];
+            in.readFully(payload);
+            crc.reset();
+            crc.update(payload);
+            if ((int) crc.getValue() != checksum) {
+                return stop();
+            }
+            validLength += 8 + length;
+            return JournalEntry.readFrom(ByteBuffer.wrap(payload));
+        } catch (EOFException e) {
+            return stop();
+        }
+    }
+
+    // Reads past the damaged frame: only a torn tail is followed by nothing but zeros (or nothing)
+    private JournalEntry stop() throws IOException {
+        corrupt = true;
+        tornTail = true;
+        int b;
+        while ((b = in.read()) != -1) {
+            if (b != 0) {
+                tornTail = false;
+                break;
+            }
+        }
+        return null;
+    }
+
+    public long validLength() {
+        return validLength;
+    }
+
+    /** True when reading stopped at a torn or corrupt frame rather than at a clean end of file. */
+    public boolean isCorrupt() {
+        return corrupt;
+    }
+
+    /** True when reading stopped at damage that only reaches to the end of the file; safe to cut off. */
+    public boolean isTornTail() {
+        return tornTail;
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+}
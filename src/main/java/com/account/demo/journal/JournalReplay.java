@@ -0,0 +1,100 @@
+package com.account.demo.journal;
+
+import com.account.demo.model.AccountView;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Path;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Rebuilds account state from a journal. Within a run (the records after one
+ * {@link JournalEntry.Type#OPENED} marker), a record is applied only if its version is not older than
+ * the state already rebuilt for that account, and ids are never reused, so records journaled out of
+ * order and anything recorded after a delete are ignored. A later run may reuse ids (an in-memory
+ * database starts over at 1), so its first record for an id replaces whatever earlier runs left,
+ * and deletes from earlier runs no longer apply.
+ * <p>
+ * Command line: {@code JournalReplay <journal> [--ndjson]} prints a summary to stderr and, with
+ * {@code --ndjson}, the rebuilt accounts to stdout in the export format.
+ */
+public final class JournalReplay {
+
+    public record Result(Map<Long, AccountView> accounts, Map<JournalEntry.Type, Long> counts, boolean corrupt) {
+
+        public long records() {
+            return counts.values().stream().mapToLong(Long::longValue).sum();
+        }
+    }
+
+    private JournalReplay() {
+    }
+
+    public static Result replay(Path journal) throws IOException {
+        Map<Long, AccountView> accounts = new TreeMap<>();
+        Set<Long> deleted = new HashSet<>();
+        Set<Long> fromEarlierRuns = new HashSet<>();
+        Map<JournalEntry.Type, Long> counts = new EnumMap<>(JournalEntry.Type.class);
+        try (JournalReader reader = new JournalReader(journal)) {
+            JournalEntry entry;
+            while ((entry = reader.next()) != null) {
+                counts.merge(entry.type(), 1L, Long::sum);
+                apply(accounts, deleted, fromEarlierRuns, entry);
+            }
+            return new Result(accounts, counts, reader.isCorrupt());
+        }
+    }
+
+    static void apply(Map<Long, AccountView> accounts, Set<Long> deleted, Set<Long> fromEarlierRuns, JournalEntry entry) {
+        if (entry.type() == JournalEntry.Type.OPENED) {
+            deleted.clear();
+            fromEarlierRuns.addAll(accounts.keySet());
+            return;
+        }
+        if (deleted.contains(entry.id())) {
+            return;
+        }
+        if (entry.type() == JournalEntry.Type.DELETED) {
+            accounts.remove(entry.id());
+            deleted.add(entry.id());
+            fromEarlierRuns.remove(entry.id());
+            return;
+        }
+        AccountView current = accounts.get(entry.id());
+        if (current == null || fromEarlierRuns.remove(entry.id()) || entry.version() >= current.version()) {
+            accounts.put(entry.id(), entry.toView());
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1 || args.length > 2 || (args.length == 2 && !args[1].equals("--ndjson"))) {
+            System.err.println("Usage: JournalReplay <journal> [--ndjson]");
+            System.exit(2);
+        }
+        Result result = replay(Path.of(args[0]));
+        System.err.printf("Replayed %d records %s into %d accounts%n", result.records(), result.counts(), result.accounts().size());
+        if (result.corrupt()) {
+            System.err.println("Stopped at a torn or corrupt frame; later records were not applied");
+        }
+        if (args.length == 2) {
+            writeNdjson(result.accounts(), System.out);
+        }
+    }
+
+    private static void writeNdjson(Map<Long, AccountView> accounts, OutputStream out) throws IOException {
+        try (JsonGenerator generator = new ObjectMapper().getFactory().createGenerator(out)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.setRootValueSeparator(null);
+            for (AccountView account : accounts.values()) {
+                generator.writeObject(account);
+                generator.writeRaw('\n');
+            }
+        }
+    }
+}
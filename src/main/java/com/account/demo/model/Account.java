@@ -6,7 +6,7 @@ import jakarta.validation.constraints.*;
 
 
 @Entity
-@Table(name = "account")
+@Table(name = "account", indexes = @Index(name = "ux_account_email", columnList = "email", unique = true))
 @JsonPOJOBuilder
 public class Account {
 
@@ -21,8 +21,10 @@ public class Account {
         this.password = password;
     }
 
+    // Pooled sequence ids (not IDENTITY) so Hibernate can batch inserts
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "account_seq")
+    @SequenceGenerator(name = "account_seq", sequenceName = "account_seq", allocationSize = 50)
     private Long id;
 
     @NotBlank(message = "Name is mandatory")
@@ -38,6 +40,10 @@ public class Account {
     @NotBlank(message = "Password is mandatory")
     private String password;
 
+    // Optimistic-lock version, also exposed to clients as the ETag
+    @Version
+    private Long version;
+
     public Long getId() {
         return id;
     }
@@ -54,6 +60,10 @@ public class Account {
         return password;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
     public void setId(Long id) {
         this.id = id;
     }
@@ -70,4 +80,8 @@ public class Account {
         this.password = password;
     }
 
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
 }
\ No newline at end of file
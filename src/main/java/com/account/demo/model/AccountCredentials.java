@@ -0,0 +1,8 @@
+package com.account.demo.model;
+
+/**
+ * The stored password hash of an account, with the id and version it was read at. Used only to verify
+ * passwords inside the service; it is never returned to clients.
+ */
+public record AccountCredentials(Long id, String password, Long version) {
+}
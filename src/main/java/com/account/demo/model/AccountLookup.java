@@ -0,0 +1,10 @@
+package com.account.demo.model;
+
+import java.util.List;
+
+/**
+ * Result of a multi-get. {@code found} follows the order of the requested ids with duplicates
+ * removed; {@code missing} lists the requested ids that do not exist.
+ */
+public record AccountLookup(List<AccountView> found, List<Long> missing) {
+}
@@ -0,0 +1,10 @@
+package com.account.demo.model;
+
+import java.util.List;
+
+/**
+ * One keyset page of accounts. {@code nextCursor} is the id to pass as {@code after}
+ * to fetch the following page, or null when there are no more rows.
+ */
+public record AccountPage(List<AccountView> items, Long nextCursor) {
+}
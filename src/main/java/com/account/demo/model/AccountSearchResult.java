@@ -0,0 +1,10 @@
+package com.account.demo.model;
+
+import java.util.List;
+
+/**
+ * Search hits, at most the requested limit. {@code partial} is true while the search index is
+ * still loading at startup, when accounts not yet indexed cannot match.
+ */
+public record AccountSearchResult(List<AccountView> items, boolean partial) {
+}
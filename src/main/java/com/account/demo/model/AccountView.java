@@ -0,0 +1,13 @@
+package com.account.demo.model;
+
+/**
+ * Read-side representation of an account: only the columns clients may see. Selected directly by
+ * constructor-expression queries, so no entity is loaded or managed and the password hash never
+ * leaves the database.
+ */
+public record AccountView(Long id, String name, String email, Long version) {
+
+    public static AccountView of(Account account) {
+        return new AccountView(account.getId(), account.getName(), account.getEmail(), account.getVersion());
+    }
+}
@@ -0,0 +1,11 @@
+package com.account.demo.model;
+
+import java.util.List;
+
+public record BatchCreateResponse(int created, int failed, List<BatchItemResult> results) {
+
+    public static BatchCreateResponse of(List<BatchItemResult> results) {
+        int created = (int) results.stream().filter(BatchItemResult::isCreated).count();
+        return new BatchCreateResponse(created, results.size() - created, results);
+    }
+}
@@ -0,0 +1,25 @@
+package com.account.demo.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * Outcome of one entry of a bulk create request. {@code index} is the position in the
+ * submitted list; exactly one of {@code id} or {@code error} is set.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record BatchItemResult(int index, Long id, String error) {
+
+    public static BatchItemResult created(int index, Long id) {
+        return new BatchItemResult(index, id, null);
+    }
+
+    public static BatchItemResult failed(int index, String error) {
+        return new BatchItemResult(index, null, error);
+    }
+
+    @JsonIgnore
+    public boolean isCreated() {
+        return id != null;
+    }
+}
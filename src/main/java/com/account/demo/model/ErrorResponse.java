@@ -0,0 +1,18 @@
+package com.account.demo.model;
+
+import com.account.demo.util.PasswordPolicy;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.Set;
+
+/**
+ * Body of error answers, except bean-validation failures, which map each field to its message.
+ * {@code violations} is only present for rejected passwords.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record ErrorResponse(String error, Set<PasswordPolicy.Violation> violations) {
+
+    public static ErrorResponse of(String error) {
+        return new ErrorResponse(error, null);
+    }
+}
@@ -0,0 +1,17 @@
+package com.account.demo.model;
+
+import java.util.List;
+
+/**
+ * Outcome of a CSV import. {@code rows} counts data rows read (the header excluded); every row is
+ * either imported or failed, unless the import was aborted, in which case {@code abortedReason} says
+ * why and rows still in flight are in neither count. Only the first errors are listed;
+ * {@code errorsTruncated} tells whether there were more.
+ */
+public record ImportReport(long rows, long imported, long failed, List<ImportError> errors, boolean errorsTruncated,
+                           String abortedReason) {
+
+    /** One rejected row; {@code line} is where the record starts in the file, from 1. */
+    public record ImportError(long line, String email, String error) {
+    }
+}
@@ -0,0 +1,7 @@
+package com.account.demo.model;
+
+import jakarta.validation.constraints.NotBlank;
+
+public record VerificationRequest(@NotBlank(message = "Email is mandatory") String email,
+                                  @NotBlank(message = "Password is mandatory") String password) {
+}
@@ -0,0 +1,18 @@
+package com.account.demo.model;
+
+/**
+ * Outcome of a password check. A wrong password and an unknown email give the same result, so the
+ * answer does not reveal which emails are registered.
+ */
+public record VerificationResult(boolean verified, Long id) {
+
+    private static final VerificationResult REJECTED = new VerificationResult(false, null);
+
+    public static VerificationResult verified(Long id) {
+        return new VerificationResult(true, id);
+    }
+
+    public static VerificationResult rejected() {
+        return REJECTED;
+    }
+}
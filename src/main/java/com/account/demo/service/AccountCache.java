@@ -0,0 +1,100 @@
+package com.account.demo.service;
+
+import com.account.demo.model.AccountView;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Bounded, TTL-evicted read-through cache of accounts by id. Misses are loaded at most once per
+ * key even under concurrent reads, and absent accounts are never cached. Writers must call
+ * {@link #invalidate(Long)} after their change is committed; an invalidation waits for any load of
+ * the same key that is in progress, so a read racing a write cannot re-insert the old row.
+ * With {@code account.cache.enabled=false} every call goes straight to the loader.
+ */
+@Component
+public class AccountCache {
+
+    private final Cache<Long, AccountView> cache;
+    // Bumped before every invalidation so a bulk load can tell whether one raced it
+    private final AtomicLong invalidations = new AtomicLong();
+
+    public AccountCache(@Value("${account.cache.enabled:true}") boolean enabled,
+                        @Value("${account.cache.max-size:10000}") long maxSize,
+                        @Value("${account.cache.ttl:5m}") Duration ttl,
+                        MeterRegistry registry) {
+        this.cache = enabled
+                ? Caffeine.newBuilder().maximumSize(maxSize).expireAfterWrite(ttl).recordStats().build()
+                : null;
+        if (cache != null) {
+            CaffeineCacheMetrics.monitor(registry, cache, "accounts");
+        }
+    }
+
+    public AccountView get(Long id, Function<Long, AccountView> loader) {
+        return cache != null ? cache.get(id, loader) : loader.apply(id);
+    }
+
+    /**
+     * Bulk read-through: keys already cached are served directly and the rest are handed to the
+     * loader in a single call. Ids the loader does not return are absent from the result and are
+     * not cached. The bulk load runs outside any per-key lock, so its rows are cached only if no
+     * invalidation happened since it started; otherwise they are returned but left for the next
+     * read to load.
+     */
+    public Map<Long, AccountView> getAll(Set<Long> ids, Function<Set<Long>, Map<Long, AccountView>> loader) {
+        if (cache == null) {
+            return loader.apply(ids);
+        }
+        Map<Long, AccountView> result = new HashMap<>(cache.getAllPresent(ids));
+        Set<Long> missing = new HashSet<>(ids);
+        missing.removeAll(result.keySet());
+        if (missing.isEmpty()) {
+            return result;
+        }
+        long generation = invalidations.get();
+        loader.apply(Collections.unmodifiableSet(missing)).forEach((id, view) -> {
+            // Checked inside compute: an invalidation of this id either bumps the counter first or
+            // waits for this compute and removes what it inserted
+            cache.asMap().compute(id, (key, cached) ->
+                    cached != null || invalidations.get() != generation ? cached : view);
+            result.put(id, view);
+        });
+        return result;
+    }
+
+    public void invalidate(Long id) {
+        if (cache != null) {
+            invalidations.incrementAndGet();
+            cache.invalidate(id);
+        }
+    }
+
+    public void invalidateAll() {
+        if (cache != null) {
+            invalidations.incrementAndGet();
+            cache.invalidateAll();
+        }
+    }
+
+    public boolean isEnabled() {
+        return cache != null;
+    }
+
+    public CacheStats stats() {
+        return cache != null ? cache.stats() : CacheStats.empty();
+    }
+}
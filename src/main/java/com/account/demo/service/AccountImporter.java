@@ -0,0 +1,379 @@
+package com.account.demo.service;
+
+import com.account.demo.dao.AccountStore;
+import com.account.demo.model.Account;
+import com.account.demo.model.ImportReport;
+import com.account.demo.model.ImportReport.ImportError;
+import com.account.demo.service.AccountMetrics.Operation;
+import com.account.demo.util.CsvReader;
+import com.account.demo.util.PasswordHasher;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Streams accounts from CSV into the store ({@code account.import.*}). The input needs a header row
+ * naming the {@code name}, {@code email} and {@code password} columns, in any order; other columns
+ * are ignored. Three stages run concurrently, joined by bounded queues so a fast stage waits for
+ * the slower one instead of buffering the file:
+ * <ol>
+ *   <li>the calling thread parses records off the stream;</li>
+ *   <li>{@code parallelism} workers validate each row like a single create (bean validation,
+ *   password policy, email not taken) and BCrypt-hash the password;</li>
+ *   <li>one writer inserts the hashed rows with {@link AccountStore#saveAll(List)}, {@code batch-size}
+ *   rows per transaction. A batch that fails (e.g. an email repeated within the file) is retried
+ *   row by row, so only the offending rows are rejected.</li>
+ * </ol>
+ * Rejected rows are reported with their line number; the import itself goes on. An import is not
+ * atomic: if the stream breaks off, the rows inserted so far stay. At most
+ * {@code max-concurrent} imports run at once; more are rejected with {@link RejectedExecutionException}.
+ */
+@Component
+public class AccountImporter {
+
+    private static final Logger log = LoggerFactory.getLogger(AccountImporter.class);
+
+    private static final long PROGRESS_LOG_INTERVAL = 100_000;
+
+    private static final long POLL_TIMEOUT_MILLIS = 100;
+
+    private final AccountService accountService;
+
+    private final AccountStore accountStore;
+
+    private final PasswordHasher passwordHasher;
+
+    private final AccountMetrics metrics;
+
+    private final int parallelism;
+
+    private final int batchSize;
+
+    private final int queueCapacity;
+
+    private final int maxReportedErrors;
+
+    private final Semaphore permits;
+
+    private final ExecutorService executor;
+
+    private final AtomicInteger active = new AtomicInteger();
+
+    private final Counter importedRows;
+
+    private final Counter failedRows;
+
+    public AccountImporter(AccountService accountService, AccountStore accountStore, PasswordHasher passwordHasher,
+                           AccountMetrics metrics,
+                           @Value("${account.import.parallelism:0}") int parallelism,
+                           @Value("${account.import.batch-size:500}") int batchSize,
+                           @Value("${account.import.queue-capacity:1000}") int queueCapacity,
+                           @Value("${account.import.max-concurrent:1}") int maxConcurrent,
+                           @Value("${account.import.max-reported-errors:1000}") int maxReportedErrors,
+                           MeterRegistry registry) {
+        this.accountService = accountService;
+        this.accountStore = accountStore;
+        this.passwordHasher = passwordHasher;
+        this.metrics = metrics;
+        this.parallelism = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        this.batchSize = batchSize;
+        this.queueCapacity = queueCapacity;
+        this.maxReportedErrors = maxReportedErrors;
+        this.permits = new Semaphore(maxConcurrent);
+        // Hash workers plus the writer of every import that may run at once
+        this.executor = Executors.newFixedThreadPool((this.parallelism + 1) * maxConcurrent,
+                new CustomizableThreadFactory("account-import-"));
+        this.importedRows = rowCounter(registry, "imported");
+        this.failedRows = rowCounter(registry, "failed");
+        Gauge.builder("account.import.active", active, AtomicInteger::get)
+                .description("CSV imports in progress")
+                .register(registry);
+    }
+
+    private static Counter rowCounter(MeterRegistry registry, String outcome) {
+        return Counter.builder("account.import.rows")
+                .description("Rows processed by CSV imports, by outcome")
+                .tag("outcome", outcome)
+                .register(registry);
+    }
+
+    public ImportReport importCsv(InputStream input) throws IOException {
+        if (!permits.tryAcquire()) {
+            throw new RejectedExecutionException("Another import is already running");
+        }
+        active.incrementAndGet();
+        Timer.Sample sample = metrics.start();
+        try (CsvReader reader = new CsvReader(new InputStreamReader(input, StandardCharsets.UTF_8))) {
+            return new Run(reader).execute();
+        } finally {
+            metrics.stop(sample, Operation.IMPORT);
+            active.decrementAndGet();
+            permits.release();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private record Row(long line, Account account) {
+    }
+
+    private static final Row END = new Row(-1, null);
+
+    /** The state of one import. */
+    private final class Run {
+
+        private final CsvReader reader;
+
+        private final BlockingQueue<Row> toHash = new ArrayBlockingQueue<>(queueCapacity);
+
+        private final BlockingQueue<Row> toInsert = new ArrayBlockingQueue<>(queueCapacity);
+
+        private final AtomicInteger hashersLeft = new AtomicInteger(parallelism);
+
+        private final CountDownLatch finished = new CountDownLatch(parallelism + 1);
+
+        // First unexpected failure of any stage; every stage stops once it is set
+        private final AtomicReference<String> aborted = new AtomicReference<>();
+
+        private final LongAdder imported = new LongAdder();
+
+        private final LongAdder failed = new LongAdder();
+
+        private final List<ImportError> errors = new ArrayList<>();
+
+        private boolean errorsTruncated;
+
+        private long rows;
+
+        Run(CsvReader reader) {
+            this.reader = reader;
+        }
+
+        ImportReport execute() throws IOException {
+            int[] columns = header(reader.next());
+            for (int i = 0; i < parallelism; i++) {
+                executor.execute(() -> stage(this::hash));
+            }
+            executor.execute(() -> stage(this::insert));
+            try {
+                List<String> record;
+                while (aborted.get() == null && (record = reader.next()) != null) {
+                    rows++;
+                    Row row = toRow(reader.recordLine(), record, columns);
+                    if (row != null) {
+                        hand(toHash, row);
+                    }
+                    if (rows % PROGRESS_LOG_INTERVAL == 0) {
+                        log.info("Import progress: {} rows read, {} imported, {} failed", rows, imported.sum(), failed.sum());
+                    }
+                }
+            } catch (CsvReader.CsvFormatException e) {
+                abort(e.getMessage());
+            } catch (IOException | RuntimeException e) {
+                abort("Reading the input failed at line " + reader.recordLine() + ": " + e.getMessage());
+            } finally {
+                for (int i = 0; i < parallelism; i++) {
+                    hand(toHash, END);
+                }
+                awaitStages();
+            }
+            log.info("Import finished: {} rows, {} imported, {} failed{}", rows, imported.sum(), failed.sum(),
+                    aborted.get() != null ? ", aborted: " + aborted.get() : "");
+            synchronized (errors) {
+                return new ImportReport(rows, imported.sum(), failed.sum(), List.copyOf(errors), errorsTruncated,
+                        aborted.get());
+            }
+        }
+
+        // Column positions of name, email and password
+        private int[] header(List<String> header) {
+            int[] columns = {-1, -1, -1};
+            List<String> names = List.of("name", "email", "password");
+            for (int i = 0; header != null && i < header.size(); i++) {
+                int known = names.indexOf(header.get(i).trim().toLowerCase(Locale.ROOT));
+                if (known >= 0) {
+                    columns[known] = i;
+                }
+            }
+            if (columns[0] < 0 || columns[1] < 0 || columns[2] < 0) {
+                throw new IllegalArgumentException("CSV header must name the name, email and password columns");
+            }
+            return columns;
+        }
+
+        private Row toRow(long line, List<String> record, int[] columns) {
+            int needed = Math.max(columns[0], Math.max(columns[1], columns[2]));
+            if (record.size() <= needed) {
+                fail(line, null, "Expected at least " + (needed + 1) + " columns, found " + record.size());
+                return null;
+            }
+            Account account = new Account();
+            account.setName(record.get(columns[0]).trim());
+            account.setEmail(record.get(columns[1]).trim());
+            account.setPassword(record.get(columns[2]));
+            return new Row(line, account);
+        }
+
+        private interface Stage {
+            void run() throws InterruptedException;
+        }
+
+        private void stage(Stage stage) {
+            try {
+                stage.run();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                abort("Interrupted");
+            } catch (RuntimeException e) {
+                log.error("Import stage failed", e);
+                abort("Import failed: " + e.getMessage());
+            } finally {
+                finished.countDown();
+            }
+        }
+
+        private void hash() throws InterruptedException {
+            Row row;
+            while ((row = take(toHash)) != END) {
+                Account account = row.account();
+                String error = accountService.validateForCreate(account);
+                if (error != null) {
+                    fail(row.line(), account.getEmail(), error);
+                    continue;
+                }
+                account.setPassword(passwordHasher.hash(account.getPassword()));
+                hand(toInsert, row);
+            }
+            if (hashersLeft.decrementAndGet() == 0) {
+                hand(toInsert, END);
+            }
+        }
+
+        private void insert() throws InterruptedException {
+            List<Row> batch = new ArrayList<>(batchSize);
+            Row row;
+            while ((row = take(toInsert)) != END) {
+                batch.add(row);
+                if (batch.size() == batchSize) {
+                    insertBatch(batch);
+                    batch.clear();
+                }
+            }
+            if (!batch.isEmpty() && aborted.get() == null) {
+                insertBatch(batch);
+            }
+        }
+
+        private void insertBatch(List<Row> batch) {
+            try {
+                List<Account> saved = accountStore.saveAll(batch.stream().map(Row::account).toList());
+                saved.forEach(this::inserted);
+            } catch (DataAccessException e) {
+                // The rolled back insert left ids and versions on the entities; without resetting
+                // both, Spring Data treats the retry as an update and merges a detached copy
+                for (Row row : batch) {
+                    reset(row.account());
+                    try {
+                        inserted(accountStore.saveAll(List.of(row.account())).get(0));
+                    } catch (DataAccessException rowFailure) {
+                        reset(row.account());
+                        fail(row.line(), row.account().getEmail(),
+                                "Insert failed: " + rowFailure.getMostSpecificCause().getMessage());
+                    }
+                }
+            }
+        }
+
+        private void reset(Account account) {
+            account.setId(null);
+            account.setVersion(null);
+        }
+
+        private void inserted(Account account) {
+            accountService.created(account);
+            imported.increment();
+            importedRows.increment();
+        }
+
+        private void fail(long line, String email, String error) {
+            failed.increment();
+            failedRows.increment();
+            synchronized (errors) {
+                if (errors.size() < maxReportedErrors) {
+                    errors.add(new ImportError(line, email, error));
+                } else {
+                    errorsTruncated = true;
+                }
+            }
+        }
+
+        private void abort(String reason) {
+            aborted.compareAndSet(null, reason);
+        }
+
+        // Blocks while the queue is full (the back-pressure), but gives up once the import is
+        // aborted, so no stage waits forever on one that has stopped
+        private void hand(BlockingQueue<Row> queue, Row row) {
+            try {
+                while (!queue.offer(row, POLL_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)) {
+                    if (aborted.get() != null) {
+                        return;
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                abort("Interrupted");
+            }
+        }
+
+        // The next row, or END once the input is exhausted or the import aborted
+        private Row take(BlockingQueue<Row> queue) throws InterruptedException {
+            while (aborted.get() == null) {
+                Row row = queue.poll(POLL_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+                if (row != null) {
+                    return row;
+                }
+            }
+            return END;
+        }
+
+        private void awaitStages() {
+            try {
+                finished.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                abort("Interrupted");
+            }
+        }
+    }
+}
@@ -0,0 +1,288 @@
+package com.account.demo.service;
+
+import com.account.demo.model.AccountView;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory search over account names and emails, case-insensitive.
+ * <ul>
+ *   <li>Queries of three or more characters match any substring. Every account is indexed under
+ *   the trigrams of its text. A query walks the posting list of its rarest trigram and checks
+ *   each candidate with {@code contains}, stopping at the limit.</li>
+ *   <li>Shorter queries (typeahead) match word prefixes. The first one and two characters of every
+ *   word in the name and email get their own posting lists.</li>
+ * </ul>
+ * Accounts are stored under dense int document numbers, so postings are plain int arrays. Documents
+ * are immutable: a change of name or email retires the old document and appends a new one, and a
+ * retired document is skipped at query time. Retired documents are compacted away once they reach
+ * a quarter of the index; the compaction runs under the write lock.
+ * <p>
+ * The owner fills the index at startup through {@link #put(AccountView)} and then calls
+ * {@link #markReady()}. While it is filling, writes that race the load are resolved by version, and
+ * removals are remembered so the load cannot bring a deleted account back.
+ */
+@Component
+public class AccountSearchIndex {
+
+    private static final char SEPARATOR = '\u0000';
+
+    private static final long PREFIX_1 = 1L << 48;
+
+    private static final long PREFIX_2 = 2L << 48;
+
+    private static final int COMPACT_MIN_DOCS = 1024;
+
+    private final boolean enabled;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private AccountView[] views = new AccountView[1024];
+
+    private String[] texts = new String[1024];
+
+    private int docCount;
+
+    private int retiredCount;
+
+    private final Map<Long, Integer> docById = new HashMap<>();
+
+    private final Map<Long, Postings> postings = new HashMap<>();
+
+    // Only populated while the index is loading
+    private final Set<Long> removedWhileLoading = new HashSet<>();
+
+    private volatile boolean ready;
+
+    public AccountSearchIndex(@Value("${account.search.enabled:true}") boolean enabled, MeterRegistry registry) {
+        this.enabled = enabled;
+        Gauge.builder("account.search.documents", this, AccountSearchIndex::size)
+                .description("Accounts in the search index")
+                .register(registry);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public void markReady() {
+        lock.writeLock().lock();
+        try {
+            ready = true;
+            removedWhileLoading.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /** Adds or replaces an account; an older version than the one indexed is ignored. */
+    public void put(AccountView account) {
+        if (!enabled || account == null || account.id() == null) {
+            return;
+        }
+        String text = normalize(account.name()) + SEPARATOR + normalize(account.email());
+        lock.writeLock().lock();
+        try {
+            if (!ready && removedWhileLoading.contains(account.id())) {
+                return;
+            }
+            Integer current = docById.get(account.id());
+            if (current != null) {
+                AccountView indexed = views[current];
+                if (indexed.version() != null && account.version() != null && indexed.version() > account.version()) {
+                    return;
+                }
+                if (texts[current].equals(text)) {
+                    views[current] = account;
+                    return;
+                }
+                retire(current);
+            }
+            addDocument(account, text);
+            if (retiredCount > COMPACT_MIN_DOCS && retiredCount > docCount / 4) {
+                compact();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long id) {
+        if (!enabled) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            if (!ready) {
+                removedWhileLoading.add(id);
+            }
+            Integer current = docById.remove(id);
+            if (current != null) {
+                retire(current);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /** Up to {@code limit} accounts whose name or email matches {@code query}, in index order. */
+    public List<AccountView> search(String query, int limit) {
+        String q = normalize(query);
+        if (!enabled || q.isEmpty()) {
+            return List.of();
+        }
+        lock.readLock().lock();
+        try {
+            Postings candidates = q.length() < 3 ? postings.get(prefixKey(q)) : rarestTrigram(q);
+            if (candidates == null) {
+                return List.of();
+            }
+            List<AccountView> results = new ArrayList<>(Math.min(limit, candidates.size));
+            for (int i = 0; i < candidates.size && results.size() < limit; i++) {
+                int doc = candidates.docs[i];
+                String text = texts[doc];
+                // Prefix postings are exact; trigram postings only say all trigrams occur somewhere
+                if (text != null && (q.length() < 3 || text.contains(q))) {
+                    results.add(views[doc]);
+                }
+            }
+            return results;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return docById.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private Postings rarestTrigram(String q) {
+        Postings rarest = null;
+        for (int i = 0; i + 3 <= q.length(); i++) {
+            Postings list = postings.get(trigramKey(q, i));
+            if (list == null) {
+                return null;
+            }
+            if (rarest == null || list.size < rarest.size) {
+                rarest = list;
+            }
+        }
+        return rarest;
+    }
+
+    private void addDocument(AccountView account, String text) {
+        if (docCount == views.length) {
+            views = Arrays.copyOf(views, docCount * 2);
+            texts = Arrays.copyOf(texts, docCount * 2);
+        }
+        int doc = docCount++;
+        views[doc] = account;
+        texts[doc] = text;
+        docById.put(account.id(), doc);
+        for (long key : keys(text)) {
+            postings.computeIfAbsent(key, k -> new Postings()).add(doc);
+        }
+    }
+
+    private void retire(int doc) {
+        views[doc] = null;
+        texts[doc] = null;
+        retiredCount++;
+    }
+
+    // Renumbers the live documents and rebuilds every posting list without the retired ones
+    private void compact() {
+        AccountView[] oldViews = views;
+        String[] oldTexts = texts;
+        int oldCount = docCount;
+        views = new AccountView[Math.max(1024, Integer.highestOneBit(Math.max(1, oldCount - retiredCount)) << 1)];
+        texts = new String[views.length];
+        docCount = 0;
+        retiredCount = 0;
+        docById.clear();
+        postings.clear();
+        for (int doc = 0; doc < oldCount; doc++) {
+            if (oldTexts[doc] != null) {
+                addDocument(oldViews[doc], oldTexts[doc]);
+            }
+        }
+    }
+
+    static String normalize(String value) {
+        return value == null ? "" : value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    // Distinct trigram keys of the text (never spanning the name/email boundary) plus the one- and
+    // two-character prefixes of each word
+    private static long[] keys(String text) {
+        long[] keys = new long[Math.max(0, text.length() - 2) + 4 * text.length()];
+        int n = 0;
+        for (int i = 0; i + 3 <= text.length(); i++) {
+            if (text.charAt(i) != SEPARATOR && text.charAt(i + 1) != SEPARATOR && text.charAt(i + 2) != SEPARATOR) {
+                keys[n++] = trigramKey(text, i);
+            }
+        }
+        for (int i = 0; i < text.length(); i++) {
+            boolean wordStart = Character.isLetterOrDigit(text.charAt(i))
+                    && (i == 0 || !Character.isLetterOrDigit(text.charAt(i - 1)));
+            if (wordStart) {
+                keys[n++] = PREFIX_1 | text.charAt(i);
+                if (i + 1 < text.length() && Character.isLetterOrDigit(text.charAt(i + 1))) {
+                    keys[n++] = PREFIX_2 | ((long) text.charAt(i) << 16) | text.charAt(i + 1);
+                }
+            }
+        }
+        long[] sorted = Arrays.copyOf(keys, n);
+        Arrays.sort(sorted);
+        int distinct = 0;
+        for (int i = 0; i < sorted.length; i++) {
+            if (i == 0 || sorted[i] != sorted[i - 1]) {
+                sorted[distinct++] = sorted[i];
+            }
+        }
+        return Arrays.copyOf(sorted, distinct);
+    }
+
+    private static long trigramKey(String text, int at) {
+        return ((long) text.charAt(at) << 32) | ((long) text.charAt(at + 1) << 16) | text.charAt(at + 2);
+    }
+
+    private static long prefixKey(String q) {
+        return q.length() == 1 ? PREFIX_1 | q.charAt(0) : PREFIX_2 | ((long) q.charAt(0) << 16) | q.charAt(1);
+    }
+
+    private static final class Postings {
+
+        int[] docs = new int[4];
+
+        int size;
+
+        void add(int doc) {
+            if (size == docs.length) {
+                docs = Arrays.copyOf(docs, size * 2);
+            }
+            docs[size++] = doc;
+        }
+    }
+}
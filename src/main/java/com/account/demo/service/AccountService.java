@@ -1,81 +1,602 @@
 package com.account.demo.service;
 
-import com.account.demo.dao.AccountRepository;
+import com.account.demo.dao.AccountStore;
+import com.account.demo.journal.AccountJournal;
 import com.account.demo.model.Account;
-import com.account.demo.util.PasswordUtil;
+import com.account.demo.model.AccountCredentials;
+import com.account.demo.model.AccountLookup;
+import com.account.demo.model.AccountPage;
+import com.account.demo.model.AccountSearchResult;
+import com.account.demo.model.AccountView;
+import com.account.demo.model.BatchCreateResponse;
+import com.account.demo.model.BatchItemResult;
+import com.account.demo.model.VerificationResult;
+import com.account.demo.service.AccountMetrics.Operation;
+import com.account.demo.util.EmailBloomFilter;
+import com.account.demo.util.PasswordHasher;
+import com.account.demo.util.PasswordPolicy;
+import com.account.demo.util.PasswordPolicyException;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import io.micrometer.core.instrument.Timer;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
 import org.springframework.stereotype.Service;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 @Service
 public class AccountService {
 
+    private static final Logger log = LoggerFactory.getLogger(AccountService.class);
+
+    public static final int DEFAULT_PAGE_SIZE = 100;
+    public static final int MAX_PAGE_SIZE = 1000;
+    public static final int MAX_BATCH_SIZE = 5000;
+    public static final int MAX_LOOKUP_SIZE = 1000;
+    public static final int DEFAULT_SEARCH_LIMIT = 10;
+    public static final int MAX_SEARCH_LIMIT = 100;
+    // Keyset page size used to load the search index at startup
+    static final int SEARCH_LOAD_PAGE_SIZE = 1000;
+    // Ids per IN query; keeps statements and their bind lists small enough to be plan-cache friendly
+    static final int LOOKUP_CHUNK_SIZE = 200;
+    // Keep in step with spring.jpa.properties.hibernate.jdbc.batch_size
+    static final int INSERT_BATCH_SIZE = 50;
+    // Rebuild the email filter once deleted emails exceed this share of its entries
+    static final double EMAIL_FILTER_MAX_STALE_FRACTION = 0.1;
+
+    @Autowired
+    private AccountStore accountStore;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private Validator validator;
+
+    @Autowired
+    private PasswordHasher passwordHasher;
+
+    @Autowired
+    private PasswordPolicy passwordPolicy;
+
+    @Autowired
+    private AccountCache accountCache;
+
+    @Autowired
+    private EmailBloomFilter emailFilter;
+
+    @Autowired
+    private AccountMetrics metrics;
+
+    @Autowired
+    private AccountJournal journal;
+
+    @Autowired
+    private AccountSearchIndex searchIndex;
+
     @Autowired
-    private AccountRepository accountRepository;
+    private IdempotencyCache idempotencyCache;
+
+    private final AtomicBoolean emailFilterRebuilding = new AtomicBoolean();
 
-    public AccountService(AccountRepository accountRepository) {
+    // Runs the persistence step of async create/patch once the hashing pool is done
+    @Autowired
+    @Qualifier("applicationTaskExecutor")
+    private Executor taskExecutor;
+
+    public AccountService(AccountStore accountStore) {
     }
 
     public Account createAccount(Account account) {
+        return metrics.record(Operation.CREATE, () -> {
+
+            if (checkPassword(account.getPassword())) {
+
+                ensureEmailAvailable(account.getEmail());
+                account.setPassword(passwordHasher.hash(account.getPassword()));
+                Account savedAccount = accountStore.save(account);
+                created(savedAccount);
+                return savedAccount;
+
+            }
+            throw new IllegalArgumentException("Invalid password");
+        });
+    }
+
+    /**
+     * Same as {@link #createAccount(Account)}, but the hash is computed on the hashing pool and the
+     * insert on the application task executor, so the calling request thread is released at once.
+     */
+    public CompletableFuture<Account> createAccountAsync(Account account) {
+        return metrics.recordAsync(Operation.CREATE, () -> {
+            checkPassword(account.getPassword());
+            ensureEmailAvailable(account.getEmail());
+            return passwordHasher.hashAsync(account.getPassword())
+                    .thenApplyAsync(hash -> {
+                        account.setPassword(hash);
+                        Account savedAccount = accountStore.save(account);
+                        created(savedAccount);
+                        return savedAccount;
+                    }, taskExecutor);
+        });
+    }
+
+    /**
+     * {@link #createAccountAsync(Account)} made safe to retry: with an {@code idempotencyKey}, a
+     * repeat of the same request (same key and payload) gets the result of the first one, waiting for
+     * it if it is still running, instead of hashing and inserting again. A {@code null} key creates
+     * unconditionally.
+     */
+    public CompletableFuture<AccountView> createAccountAsync(Account account, String idempotencyKey) {
+        if (idempotencyKey == null) {
+            return createAccountAsync(account).thenApply(AccountView::of);
+        }
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > IdempotencyCache.MAX_KEY_LENGTH) {
+            throw new IllegalArgumentException("Idempotency-Key must be 1 to " + IdempotencyCache.MAX_KEY_LENGTH + " characters");
+        }
+        return idempotencyCache.execute(idempotencyKey, fingerprint(account),
+                () -> createAccountAsync(account).thenApply(AccountView::of));
+    }
+
+    // SHA-256 of the create payload, so the cache never holds a plain-text password
+    private static byte[] fingerprint(Account account) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        for (String field : new String[]{account.getName(), account.getEmail(), account.getPassword()}) {
+            byte[] bytes = field == null ? new byte[0] : field.getBytes(StandardCharsets.UTF_8);
+            digest.update(ByteBuffer.allocate(4).putInt(field == null ? -1 : bytes.length).array());
+            digest.update(bytes);
+        }
+        return digest.digest();
+    }
+
+    /**
+     * Creates many accounts at once. Every entry is validated up front, passwords are hashed in
+     * parallel on the hashing pool outside any transaction, and the valid entries are inserted in
+     * JDBC batches of {@link #INSERT_BATCH_SIZE}, one transaction per batch. A failed batch is
+     * retried row by row, so invalid entries and rows the store rejects are reported per item
+     * instead of failing their neighbours or the whole request; a saturated
+     * hashing pool rejects the request as a whole ({@link RejectedExecutionException}, 429).
+     */
+    public BatchCreateResponse createAccounts(List<Account> accounts) {
+        return metrics.record(Operation.CREATE_BATCH, () -> insertBatch(accounts));
+    }
+
+    private BatchCreateResponse insertBatch(List<Account> accounts) {
+        if (accounts == null || accounts.isEmpty()) {
+            throw new IllegalArgumentException("Batch cannot be empty");
+        }
+        if (accounts.size() > MAX_BATCH_SIZE) {
+            throw new IllegalArgumentException("Batch cannot contain more than " + MAX_BATCH_SIZE + " accounts");
+        }
 
-        if (validatePassword(account.getPassword())) {
+        BatchItemResult[] results = new BatchItemResult[accounts.size()];
+        List<Integer> valid = new ArrayList<>(accounts.size());
+        Set<String> batchEmails = new HashSet<>();
+        for (int i = 0; i < accounts.size(); i++) {
+            String error = validateForCreate(accounts.get(i));
+            if (error == null && !batchEmails.add(accounts.get(i).getEmail())) {
+                error = "Email " + accounts.get(i).getEmail() + " appears more than once in the batch";
+            }
+            if (error == null) {
+                valid.add(i);
+            } else {
+                results[i] = BatchItemResult.failed(i, error);
+            }
+        }
 
-            account.setPassword(PasswordUtil.hashPassword(account.getPassword()));
-            return accountRepository.save(account);
+        // On the hashing pool, where a full queue turns the whole batch away with 429
+        List<String> hashes = passwordHasher.hashAll(valid.stream().map(i -> accounts.get(i).getPassword()).toList());
+        for (int j = 0; j < valid.size(); j++) {
+            accounts.get(valid.get(j)).setPassword(hashes.get(j));
+        }
 
+        for (int from = 0; from < valid.size(); from += INSERT_BATCH_SIZE) {
+            List<Integer> chunk = valid.subList(from, Math.min(from + INSERT_BATCH_SIZE, valid.size()));
+            List<Account> batch = chunk.stream().map(accounts::get).toList();
+            try {
+                List<Account> saved = accountStore.saveAll(batch);
+                for (int j = 0; j < chunk.size(); j++) {
+                    results[chunk.get(j)] = BatchItemResult.created(chunk.get(j), saved.get(j).getId());
+                    created(saved.get(j));
+                }
+            } catch (DataAccessException e) {
+                // One bad row (say an email registered concurrently) fails the whole chunk; retry
+                // row by row so only that row is reported
+                for (Integer i : chunk) {
+                    Account account = accounts.get(i);
+                    resetForInsert(account);
+                    try {
+                        Account saved = accountStore.saveAll(List.of(account)).get(0);
+                        results[i] = BatchItemResult.created(i, saved.getId());
+                        created(saved);
+                    } catch (DataAccessException rowFailure) {
+                        resetForInsert(account);
+                        results[i] = BatchItemResult.failed(i, "Insert failed: " + rowFailure.getMostSpecificCause().getMessage());
+                    }
+                }
+            }
         }
-        throw new IllegalArgumentException("Invalid password");
+        return BatchCreateResponse.of(List.of(results));
     }
 
-    public Account getAccountById(Long id) {
-        return accountRepository.findById(id).orElse(null);
+    // A rolled back insert leaves its id and version on the entity; with either set, Spring Data
+    // would treat the next save as an update and merge a copy instead of inserting
+    private static void resetForInsert(Account account) {
+        account.setId(null);
+        account.setVersion(null);
     }
 
-    public List<Account> getAllAccounts() {
-        return accountRepository.findAll();
+    // Everything that tracks accounts besides the store itself
+    void created(Account account) {
+        AccountView view = AccountView.of(account);
+        emailFilter.put(account.getEmail());
+        journal.created(view);
+        searchIndex.put(view);
     }
 
-    public Account updateAccount(Long id, Account updatedAccount) {
-        Optional<Account> existingAccount = accountRepository.findById(id);
-        if (existingAccount.isPresent())
-        {
-            Account account = existingAccount.get();
-            account.setName(updatedAccount.getName());
-            account.setEmail(updatedAccount.getEmail());
-            return accountRepository.save(account);
+    String validateForCreate(Account account) {
+        if (account == null) {
+            return "Account is mandatory";
+        }
+        Set<ConstraintViolation<Account>> violations = validator.validate(account);
+        if (!violations.isEmpty()) {
+            return violations.iterator().next().getMessage();
+        }
+        // Batches and imports reject many rows; the policy result avoids an exception per bad password
+        PasswordPolicy.Result password = metrics.passwordValidation().record(() -> passwordPolicy.check(account.getPassword()));
+        if (!password.isValid()) {
+            return password.message();
+        }
+        try {
+            ensureEmailAvailable(account.getEmail());
+        } catch (DuplicateEmailException e) {
+            return e.getMessage();
         }
         return null;
     }
 
-    public Account patchAccount(Long id, Account updatedAccount) {
-        Optional<Account> existingAccount = accountRepository.findById(id);
-        if (existingAccount.isPresent())
-        {
-            Account account = existingAccount.get();
-            if (validatePassword(updatedAccount.getPassword())) {
-                account.setPassword(PasswordUtil.hashPassword(updatedAccount.getPassword()));
-                return accountRepository.save(account);
+    // The Bloom filter answers most sign-ups without a query; the unique index remains the final guard
+    private void ensureEmailAvailable(String email) {
+        if (!emailFilter.mightContain(email)) {
+            metrics.emailFilterNegative();
+            return;
+        }
+        if (accountStore.existsByEmail(email)) {
+            throw new DuplicateEmailException(email);
+        }
+    }
+
+    public AccountView getAccountByEmail(String email) {
+        return metrics.record(Operation.GET_BY_EMAIL, () -> {
+            if (!emailFilter.mightContain(email)) {
+                metrics.emailFilterNegative();
+                return null;
+            }
+            return accountStore.findViewByEmail(email).orElse(null);
+        });
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildEmailFilter() {
+        if (!emailFilterRebuilding.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            emailFilter.rebuild(accountStore::forEachEmail);
+        } finally {
+            emailFilterRebuilding.set(false);
+        }
+    }
+
+    /**
+     * Fills the search index from the store in keyset pages on the task executor, so startup does
+     * not wait for it; searches report partial results until it is done. Writes made meanwhile go
+     * to the index directly and win over the rows being loaded.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadSearchIndex() {
+        if (!searchIndex.isEnabled()) {
+            return;
+        }
+        taskExecutor.execute(() -> {
+            try {
+                long after = 0;
+                List<AccountView> page;
+                do {
+                    page = accountStore.findViewsByIdGreaterThan(after, SEARCH_LOAD_PAGE_SIZE);
+                    page.forEach(searchIndex::put);
+                    if (!page.isEmpty()) {
+                        after = page.get(page.size() - 1).id();
+                    }
+                } while (page.size() == SEARCH_LOAD_PAGE_SIZE);
+                searchIndex.markReady();
+                log.info("Search index loaded with {} accounts", searchIndex.size());
+            } catch (RuntimeException e) {
+                log.error("Loading the search index failed; search stays partial", e);
+            }
+        });
+    }
+
+    /** Case-insensitive substring search over names and emails; 1-2 character queries match word prefixes. */
+    public AccountSearchResult searchAccounts(String query, int limit) {
+        if (!searchIndex.isEnabled()) {
+            throw new IllegalArgumentException("Search is disabled");
+        }
+        if (query == null || query.isBlank()) {
+            throw new IllegalArgumentException("Query cannot be empty");
+        }
+        if (limit < 1 || limit > MAX_SEARCH_LIMIT) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + MAX_SEARCH_LIMIT);
+        }
+        return metrics.record(Operation.SEARCH,
+                () -> new AccountSearchResult(searchIndex.search(query, limit), !searchIndex.isReady()));
+    }
+
+    public AccountView getAccountById(Long id) {
+        return metrics.record(Operation.GET, () -> accountCache.get(id, key -> accountStore.findViewById(key).orElse(null)));
+    }
+
+    // Reads back an account right after writing it
+    private AccountView latestAccount(Long id) {
+        return accountStore.findViewById(id).orElse(null);
+    }
+
+    /**
+     * Resolves many ids at once. Ids already in the cache are served from it; the rest are read in
+     * chunked IN queries and cached on the way out, so a multi-get costs at most
+     * ceil(misses / LOOKUP_CHUNK_SIZE) statements instead of one per id.
+     */
+    public AccountLookup getAccountsByIds(List<Long> ids) {
+        if (ids == null || ids.isEmpty()) {
+            return new AccountLookup(List.of(), List.of());
+        }
+        Set<Long> unique = new LinkedHashSet<>(ids);
+        if (unique.contains(null)) {
+            throw new IllegalArgumentException("Ids must not be null");
+        }
+        if (unique.size() > MAX_LOOKUP_SIZE) {
+            throw new IllegalArgumentException("At most " + MAX_LOOKUP_SIZE + " ids can be looked up at once");
+        }
+        return metrics.record(Operation.GET_MANY, () -> {
+            Map<Long, AccountView> byId = accountCache.getAll(unique, this::loadViews);
+            List<AccountView> found = new ArrayList<>(byId.size());
+            List<Long> missing = new ArrayList<>();
+            for (Long id : unique) {
+                AccountView view = byId.get(id);
+                if (view != null) {
+                    found.add(view);
+                } else {
+                    missing.add(id);
+                }
+            }
+            return new AccountLookup(found, missing);
+        });
+    }
+
+    private Map<Long, AccountView> loadViews(Set<Long> ids) {
+        List<Long> pending = new ArrayList<>(ids);
+        Map<Long, AccountView> byId = new HashMap<>(pending.size() * 2);
+        for (int from = 0; from < pending.size(); from += LOOKUP_CHUNK_SIZE) {
+            List<Long> chunk = pending.subList(from, Math.min(from + LOOKUP_CHUNK_SIZE, pending.size()));
+            for (AccountView view : accountStore.findViewsByIdIn(chunk)) {
+                byId.put(view.id(), view);
+            }
+        }
+        return byId;
+    }
+
+    public AccountPage getAccounts(Long after, int limit) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        long cursor = after == null ? 0L : after;
+        // Fetch one extra row to know whether another page exists
+        List<AccountView> rows = metrics.record(Operation.GET_ALL,
+                () -> accountStore.findViewsByIdGreaterThan(cursor, limit + 1));
+        if (rows.size() > limit) {
+            List<AccountView> items = rows.subList(0, limit);
+            return new AccountPage(items, items.get(limit - 1).id());
+        }
+        return new AccountPage(rows, null);
+    }
+
+    /**
+     * Writes every account as one JSON document per line, in id order. The store feeds rows one at
+     * a time (a database cursor over projections for JPA), so memory stays flat regardless of table
+     * size; output is flushed every fetch batch. Returns the number of accounts written.
+     */
+    public long exportAccounts(OutputStream out) throws IOException {
+        Timer.Sample sample = metrics.start();
+        long[] written = {0};
+        // The mapper flushes after every value by default, which would send one chunk per account
+        ObjectWriter writer = objectMapper.writerFor(AccountView.class).without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.setRootValueSeparator(null);
+            accountStore.forEachView(view -> {
+                writer.writeValue(generator, view);
+                generator.writeRaw('\n');
+                if (++written[0] % AccountStore.EXPORT_FETCH_SIZE == 0) {
+                    generator.flush();
+                }
+            });
+        } finally {
+            metrics.stop(sample, Operation.EXPORT);
+        }
+        return written[0];
+    }
+
+    public AccountView updateAccount(Long id, Account updatedAccount) {
+        return updateAccount(id, updatedAccount, null);
+    }
+
+    /**
+     * Updates name and email with a single UPDATE statement. When {@code expectedVersion} is set
+     * (from If-Match) the statement only matches that version and bumps it by one, so the response
+     * is built as that next version without reading the row back; otherwise the row is read back
+     * from the store, not the cache the write has just invalidated.
+     */
+    public AccountView updateAccount(Long id, Account updatedAccount, Long expectedVersion) {
+        return metrics.record(Operation.UPDATE, () -> applyUpdate(id, updatedAccount, expectedVersion));
+    }
+
+    private AccountView applyUpdate(Long id, Account updatedAccount, Long expectedVersion) {
+        // No pre-check for a taken email: without reading the row we cannot tell a change from the
+        // account's own email, so the unique index decides (DataIntegrityViolationException, 409).
+        // The filter can still tell a change apart: the old email is in it, so an email it has never
+        // seen means the old one just went stale (a false positive only skips one removal count)
+        boolean emailChanged = !emailFilter.mightContain(updatedAccount.getEmail());
+        int updated = accountStore.updateNameAndEmail(id, updatedAccount.getName(), updatedAccount.getEmail(), expectedVersion);
+        if (updated == 0) {
+            return notUpdated(id, expectedVersion);
+        }
+        accountCache.invalidate(id);
+        emailFilter.put(updatedAccount.getEmail());
+        if (emailChanged) {
+            emailRemoved();
+        }
+        AccountView account = expectedVersion != null
+                ? new AccountView(id, updatedAccount.getName(), updatedAccount.getEmail(), expectedVersion + 1)
+                : latestAccount(id);
+        journal.updated(account);
+        searchIndex.put(account);
+        return account;
+    }
+
+    // Zero rows matched: either the account is gone (null, i.e. 404) or If-Match named an old version
+    private AccountView notUpdated(Long id, Long expectedVersion) {
+        if (expectedVersion != null) {
+            Optional<Long> currentVersion = accountStore.findVersionById(id);
+            if (currentVersion.isPresent()) {
+                throw new PreconditionFailedException(id, expectedVersion, currentVersion.get());
             }
-            throw new IllegalArgumentException("Invalid password");
         }
         return null;
     }
 
-    public void deleteAccount(Long id) {
-        accountRepository.deleteById(id);
+    /**
+     * Changes the password with a single UPDATE statement once it has been hashed off the request
+     * thread; completes with null when the account does not exist. {@code expectedVersion} works as
+     * in {@link #updateAccount(Long, Account, Long)}.
+     */
+    public CompletableFuture<AccountView> patchAccountAsync(Long id, Account updatedAccount, Long expectedVersion) {
+        return metrics.recordAsync(Operation.PATCH, () -> {
+            checkPassword(updatedAccount.getPassword());
+            return passwordHasher.hashAsync(updatedAccount.getPassword())
+                    .thenApplyAsync(hash -> {
+                        if (accountStore.updatePassword(id, hash, expectedVersion) == 0) {
+                            return notUpdated(id, expectedVersion);
+                        }
+                        accountCache.invalidate(id);
+                        AccountView account = latestAccount(id);
+                        journal.passwordChanged(account);
+                        searchIndex.put(account);
+                        return account;
+                    }, taskExecutor);
+        });
     }
 
-    public boolean validatePassword(String password) {
-        if (password == null || password.trim().isEmpty()) {
-            throw new IllegalArgumentException("Password cannot be empty");
+    /**
+     * Checks an email and password against the stored hash on the hashing component's verification
+     * pool, releasing the request thread meanwhile. Unknown emails are checked against a dummy hash,
+     * so they cost as much as a wrong password. A hash stored with a lower BCrypt cost than configured
+     * is replaced in the background after a successful check.
+     */
+    public CompletableFuture<VerificationResult> verifyPasswordAsync(String email, String password) {
+        return metrics.recordAsync(Operation.VERIFY, () -> {
+            AccountCredentials credentials = accountStore.findCredentialsByEmail(email).orElse(null);
+            return passwordHasher.verifyAsync(password, credentials == null ? null : credentials.password())
+                    .thenApply(verification -> {
+                        if (!verification.matches()) {
+                            return VerificationResult.rejected();
+                        }
+                        if (verification.upgradedHash() != null) {
+                            taskExecutor.execute(() -> upgradeHash(credentials, verification.upgradedHash()));
+                        }
+                        return VerificationResult.verified(credentials.id());
+                    });
+        });
+    }
+
+    // Conditional on the version that was verified, so a password changed meanwhile is never overwritten
+    private void upgradeHash(AccountCredentials credentials, String hash) {
+        try {
+            if (accountStore.updatePassword(credentials.id(), hash, credentials.version()) == 0) {
+                return;
+            }
+            accountCache.invalidate(credentials.id());
+            AccountView account = latestAccount(credentials.id());
+            journal.passwordChanged(account);
+            searchIndex.put(account);
+        } catch (DataAccessException e) {
+            log.warn("Could not store the upgraded password hash of account {}", credentials.id(), e);
+        }
+    }
+
+    /** Deletes with a single DELETE statement; returns false when there was no such account. */
+    public boolean deleteAccount(Long id) {
+        return metrics.record(Operation.DELETE, () -> {
+            if (accountStore.deleteAccountById(id) == 0) {
+                return false;
+            }
+            accountCache.invalidate(id);
+            emailRemoved();
+            journal.deleted(id);
+            searchIndex.remove(id);
+            return true;
+        });
+    }
+
+    private void emailRemoved() {
+        emailFilter.recordRemoval();
+        if (emailFilter.isStale(EMAIL_FILTER_MAX_STALE_FRACTION)) {
+            taskExecutor.execute(this::rebuildEmailFilter);
         }
-        // Password must contain at least one uppercase letter, one lowercase letter, one digit, and at least 8 characters
-        String passwordRegex = "^(?=.*[A-Z])(?=.*[a-z])(?=.*\\d)[A-Za-z\\d]{8,}$";
-        if (!password.matches(passwordRegex)) {
-            throw new IllegalArgumentException("Password must contain at least one uppercase letter, one lowercase letter, and one digit");
+    }
+
+    // validatePassword plus its timer; used on every service path that accepts a password
+    private boolean checkPassword(String password) {
+        return metrics.passwordValidation().record(() -> validatePassword(password));
+    }
+
+    /** Checks the password against {@link PasswordPolicy}; throws {@link PasswordPolicyException} if it is rejected. */
+    public boolean validatePassword(String password) {
+        PasswordPolicy.Result result = passwordPolicy.check(password);
+        if (!result.isValid()) {
+            throw new PasswordPolicyException(result);
         }
         return true;
     }
@@ -0,0 +1,8 @@
+package com.account.demo.service;
+
+public class DuplicateEmailException extends RuntimeException {
+
+    public DuplicateEmailException(String email) {
+        super("Email " + email + " is already registered");
+    }
+}
@@ -0,0 +1,115 @@
+package com.account.demo.service;
+
+import com.account.demo.model.AccountView;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+/**
+ * Bounded, TTL-evicted record of account creations by {@code Idempotency-Key}
+ * ({@code account.idempotency.*}).
+ * <p>
+ * The first request with a key registers an in-flight future before any work starts; duplicates
+ * that arrive while it runs wait on that same future, and duplicates that arrive after it finished
+ * are answered from it directly, so neither hashes nor inserts again. A failed creation is dropped
+ * from the cache so the client can retry it with the same key. Each key remembers a fingerprint of
+ * the payload it was first used with; reusing the key for a different payload is rejected with
+ * {@link IdempotencyKeyMismatchException}.
+ * With {@code account.idempotency.enabled=false} the key is ignored and every call runs.
+ */
+@Component
+public class IdempotencyCache {
+
+    public static final int MAX_KEY_LENGTH = 255;
+
+    private final Cache<String, Execution> cache;
+
+    private final Counter executed;
+
+    private final Counter replayed;
+
+    private final Counter mismatched;
+
+    public IdempotencyCache(@Value("${account.idempotency.enabled:true}") boolean enabled,
+                            @Value("${account.idempotency.max-size:100000}") long maxSize,
+                            @Value("${account.idempotency.ttl:24h}") Duration ttl,
+                            MeterRegistry registry) {
+        this.cache = enabled
+                ? Caffeine.newBuilder().maximumSize(maxSize).expireAfterWrite(ttl).recordStats().build()
+                : null;
+        if (cache != null) {
+            CaffeineCacheMetrics.monitor(registry, cache, "idempotency");
+        }
+        this.executed = requestCounter(registry, "executed");
+        this.replayed = requestCounter(registry, "replayed");
+        this.mismatched = requestCounter(registry, "mismatched");
+    }
+
+    private static Counter requestCounter(MeterRegistry registry, String outcome) {
+        return Counter.builder("account.idempotency.requests")
+                .description("Requests carrying an Idempotency-Key, by outcome")
+                .tag("outcome", outcome)
+                .register(registry);
+    }
+
+    /**
+     * Runs {@code action} unless {@code key} has already been used, in which case the result of the
+     * first run (finished or still in flight) is returned instead.
+     */
+    public CompletableFuture<AccountView> execute(String key, byte[] fingerprint,
+                                                  Supplier<CompletableFuture<AccountView>> action) {
+        if (cache == null) {
+            return action.get();
+        }
+        Execution execution = new Execution(fingerprint, new CompletableFuture<>());
+        Execution existing = cache.asMap().putIfAbsent(key, execution);
+        if (existing != null) {
+            if (!MessageDigest.isEqual(existing.fingerprint(), fingerprint)) {
+                mismatched.increment();
+                throw new IdempotencyKeyMismatchException(key);
+            }
+            replayed.increment();
+            return existing.result();
+        }
+        executed.increment();
+        CompletableFuture<AccountView> result;
+        try {
+            result = action.get();
+        } catch (RuntimeException e) {
+            cache.asMap().remove(key, execution);
+            execution.result().completeExceptionally(e);
+            throw e;
+        }
+        result.whenComplete((account, error) -> {
+            if (error != null) {
+                cache.asMap().remove(key, execution);
+                execution.result().completeExceptionally(error);
+            } else {
+                execution.result().complete(account);
+            }
+        });
+        return execution.result();
+    }
+
+    public void invalidateAll() {
+        if (cache != null) {
+            cache.invalidateAll();
+        }
+    }
+
+    public boolean isEnabled() {
+        return cache != null;
+    }
+
+    private record Execution(byte[] fingerprint, CompletableFuture<AccountView> result) {
+    }
+}
@@ -0,0 +1,8 @@
+package com.account.demo.service;
+
+public class PreconditionFailedException extends RuntimeException {
+
+    public PreconditionFailedException(Long id, Long expectedVersion, Long actualVersion) {
+        super("Account " + id + " is at version " + actualVersion + ", not " + expectedVersion);
+    }
+}
@@ -0,0 +1,140 @@
+package com.account.demo.util;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Incremental RFC 4180 reader: one record per {@link #next()}, read from the underlying reader in
+ * fixed-size chunks, so a file of any size is parsed in constant memory (bar a single record).
+ * Fields may be quoted, quoted fields may contain separators, line breaks and doubled quotes, and
+ * records may end in LF or CRLF. Blank lines are skipped.
+ */
+public class CsvReader implements Closeable {
+
+    private static final int MAX_FIELD_LENGTH = 1 << 16;
+
+    private final Reader reader;
+
+    private final char[] buffer = new char[8192];
+
+    private int position;
+
+    private int limit;
+
+    private long line = 1;
+
+    private long recordLine;
+
+    public CsvReader(Reader reader) {
+        this.reader = reader;
+    }
+
+    /** The next record, or {@code null} at the end of the input. */
+    public List<String> next() throws IOException {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        boolean afterQuote = false;
+        recordLine = line;
+        int c;
+        while ((c = read()) != -1) {
+            if (quoted) {
+                if (c == '"') {
+                    if (peek() == '"') {
+                        read();
+                        append(field, '"');
+                    } else {
+                        quoted = false;
+                        afterQuote = true;
+                    }
+                } else {
+                    if (c == '\n') {
+                        line++;
+                    }
+                    append(field, (char) c);
+                }
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+                afterQuote = false;
+            } else if (c == '\n' || c == '\r') {
+                if (c == '\r' && peek() == '\n') {
+                    read();
+                }
+                line++;
+                if (fields.isEmpty() && field.isEmpty() && !afterQuote) {
+                    recordLine = line;
+                    continue;
+                }
+                fields.add(field.toString());
+                return fields;
+            } else if (c == '"' && field.isEmpty() && !afterQuote) {
+                quoted = true;
+            } else if (afterQuote) {
+                throw new CsvFormatException(recordLine, "Unexpected character after closing quote");
+            } else {
+                append(field, (char) c);
+            }
+        }
+        if (quoted) {
+            throw new CsvFormatException(recordLine, "Unterminated quoted field");
+        }
+        if (fields.isEmpty() && field.isEmpty() && !afterQuote) {
+            return null;
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    /** Line on which the record last returned by {@link #next()} started, from 1. */
+    public long recordLine() {
+        return recordLine;
+    }
+
+    private void append(StringBuilder field, char c) {
+        if (field.length() == MAX_FIELD_LENGTH) {
+            throw new CsvFormatException(recordLine, "Field longer than " + MAX_FIELD_LENGTH + " characters");
+        }
+        field.append(c);
+    }
+
+    private int read() throws IOException {
+        if (position == limit && !fill()) {
+            return -1;
+        }
+        return buffer[position++];
+    }
+
+    private int peek() throws IOException {
+        if (position == limit && !fill()) {
+            return -1;
+        }
+        return buffer[position];
+    }
+
+    private boolean fill() throws IOException {
+        int n = reader.read(buffer);
+        if (n <= 0) {
+            return false;
+        }
+        position = 0;
+        limit = n;
+        return true;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    /** Malformed input; the whole remaining input is unreadable, unlike an invalid value. */
+    public static class CsvFormatException extends IllegalArgumentException {
+
+        public CsvFormatException(long line, String message) {
+            super("Line " + line + ": " + message);
+        }
+    }
+}
@@ -1,31 +1,56 @@
-package com.account.demo.util;
-
-import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
-import com.fasterxml.jackson.annotation.JsonInclude;
-import com.fasterxml.jackson.annotation.JsonProperty;
-import org.springframework.http.HttpStatus;
-import org.springframework.http.ResponseEntity;
-import java.util.HashMap;
-import java.util.Map;
-
-@JsonIgnoreProperties(ignoreUnknown = true)
-@JsonInclude(JsonInclude.Include.NON_NULL)
-public class CustomResponsePojo {
-    @JsonProperty("status")
-    private String status;
-
-    @JsonProperty("message")
-    private String message;
-
-    public CustomResponsePojo(String status, String message) {
-        this.status = status;
-        this.message = message;
-    }
-    public static ResponseEntity<Object> generateResponse(String message, HttpStatus status) {
-        Map<String, Object> map = new HashMap<String, Object>();
-        map.put("message", message);
-        map.put("status", status.value());
-
-        return new ResponseEntity<Object>(map, status);
-    }
-}
+package com.account.demo.util;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.core.io.JsonStringEncoder;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Fixed-message response bodies: {@code {"message": ..., "status": ...}}. The bodies answered on every
+ * create and delete are serialized once and kept as ready {@link ResponseEntity ResponseEntities} of
+ * bytes. Spring writes those bytes as they are, so returning one allocates nothing and never reaches
+ * Jackson. The class itself is the documented schema of these bodies.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class CustomResponsePojo {
+
+    private static final HttpHeaders JSON_HEADERS = jsonHeaders();
+
+    public static final ResponseEntity<byte[]> ACCOUNT_CREATED = generateResponse("Account Successfully Created", HttpStatus.CREATED);
+
+    public static final ResponseEntity<byte[]> ACCOUNT_DELETED = generateResponse("Account Successfully Deleted", HttpStatus.OK);
+
+    public static final ResponseEntity<byte[]> ACCOUNT_NOT_FOUND = generateResponse("Account Not Found", HttpStatus.NOT_FOUND);
+
+    @JsonProperty("status")
+    private int status;
+
+    @JsonProperty("message")
+    private String message;
+
+    public CustomResponsePojo(int status, String message) {
+        this.status = status;
+        this.message = message;
+    }
+
+    /** Serializes a body on every call; for messages without a constant above. */
+    public static ResponseEntity<byte[]> generateResponse(String message, HttpStatus status) {
+        // Same bytes Jackson wrote for the map this used to return
+        String json = "{\"message\":\"" + new String(JsonStringEncoder.getInstance().quoteAsString(message))
+                + "\",\"status\":" + status.value() + "}";
+        return new ResponseEntity<>(json.getBytes(StandardCharsets.UTF_8), JSON_HEADERS, status);
+    }
+
+    private static HttpHeaders jsonHeaders() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        return HttpHeaders.readOnlyHttpHeaders(headers);
+    }
+}
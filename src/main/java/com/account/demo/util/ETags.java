@@ -0,0 +1,40 @@
+package com.account.demo.util;
+
+/**
+ * Maps account versions to strong ETags ({@code "3"}) and back. Weak validators are accepted
+ * on input since the version is exact either way.
+ */
+public final class ETags {
+
+    // Version that can never match, used for If-Match values we cannot parse
+    public static final long NO_MATCH = -1L;
+
+    private ETags() {
+    }
+
+    public static String of(Long version) {
+        return "\"" + version + "\"";
+    }
+
+    /**
+     * Returns the version an If-Match header requires, or null when the header is absent or
+     * {@code *}. A header naming anything other than a single version yields {@link #NO_MATCH}.
+     */
+    public static Long parseIfMatch(String header) {
+        if (header == null || header.isBlank() || header.trim().equals("*")) {
+            return null;
+        }
+        String tag = header.trim();
+        if (tag.startsWith("W/")) {
+            tag = tag.substring(2);
+        }
+        if (tag.length() < 3 || tag.charAt(0) != '"' || tag.charAt(tag.length() - 1) != '"') {
+            return NO_MATCH;
+        }
+        try {
+            return Long.parseLong(tag.substring(1, tag.length() - 1));
+        } catch (NumberFormatException e) {
+            return NO_MATCH;
+        }
+    }
+}
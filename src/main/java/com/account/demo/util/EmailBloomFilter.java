@@ -0,0 +1,184 @@
+package com.account.demo.util;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+/**
+ * Bloom filter over registered emails. Lookups are lock-free; puts share a read lock that a
+ * rebuild takes exclusively only to start and to swap in its new bits. A negative answer from {@link #mightContain(String)}
+ * is definitive, so "is this email taken?" only has to reach the database on a positive answer.
+ * Until the first {@link #rebuild(Consumer)} completes every lookup answers "maybe", which keeps
+ * callers correct while the filter is still warming.
+ *
+ * <p>Bloom filters cannot forget entries, so deleted emails keep their bits set. They only raise
+ * the false-positive rate; {@link #recordRemoval()} tracks them so the owner can rebuild once
+ * they pile up.
+ */
+@Component
+public class EmailBloomFilter {
+
+    private final int numBits;
+
+    private final int numHashes;
+
+    private volatile AtomicLongArray bits;
+
+    // Receives writes while a rebuild is scanning the table, so they are not lost on swap
+    private volatile AtomicLongArray pending;
+
+    private volatile boolean ready;
+
+    private final AtomicLong entries = new AtomicLong();
+
+    private final AtomicLong removals = new AtomicLong();
+
+    // A lock rather than synchronized: the rebuild scans the table, and a virtual thread
+    // blocking on JDBC inside a monitor would pin its carrier thread
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+
+    // Puts hold the read side, so a put lands in both the old and the pending bits or in the new
+    // ones, never in an array that was just swapped out
+    private final ReentrantReadWriteLock swapLock = new ReentrantReadWriteLock();
+
+    public EmailBloomFilter(@Value("${account.email-filter.expected-insertions:1000000}") long expectedInsertions,
+                            @Value("${account.email-filter.false-positive-rate:0.01}") double falsePositiveRate) {
+        long m = (long) Math.ceil(-expectedInsertions * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        this.numBits = (int) Math.min(Math.max(m, 64), Integer.MAX_VALUE - 63);
+        this.numHashes = Math.max(1, (int) Math.round((double) numBits / expectedInsertions * Math.log(2)));
+        this.bits = new AtomicLongArray((numBits + 63) >>> 6);
+    }
+
+    public void put(String email) {
+        if (email == null) {
+            return;
+        }
+        long hash = hash64(email);
+        Lock lock = swapLock.readLock();
+        lock.lock();
+        try {
+            setBits(bits, hash);
+            AtomicLongArray building = pending;
+            if (building != null) {
+                setBits(building, hash);
+            }
+            entries.incrementAndGet();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** False means the email is definitely not registered; true means it may be. */
+    public boolean mightContain(String email) {
+        if (email == null) {
+            return false;
+        }
+        if (!ready) {
+            return true;
+        }
+        long hash = hash64(email);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        AtomicLongArray current = bits;
+        for (int i = 1; i <= numHashes; i++) {
+            int bit = ((h1 + i * h2) & Integer.MAX_VALUE) % numBits;
+            if ((current.get(bit >>> 6) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /** Records that an email left the set; its bits stay set until the next rebuild. */
+    public void recordRemoval() {
+        removals.incrementAndGet();
+    }
+
+    /** True once removals exceed the given fraction of the entries added since the last rebuild. */
+    public boolean isStale(double maxRemovedFraction) {
+        return removals.get() > Math.max(1, entries.get()) * maxRemovedFraction;
+    }
+
+    /**
+     * Repopulates the filter from scratch. {@code source} must feed every registered email to the
+     * supplied consumer; concurrent {@link #put(String)} calls are captured in the new bits too.
+     */
+    public void rebuild(Consumer<Consumer<String>> source) {
+        rebuildLock.lock();
+        try {
+            AtomicLongArray fresh = new AtomicLongArray(bits.length());
+            AtomicLong count = new AtomicLong();
+            long[] before = new long[2];
+            exclusively(() -> {
+                pending = fresh;
+                before[0] = entries.get();
+                before[1] = removals.get();
+            });
+            source.accept(email -> {
+                if (email != null) {
+                    setBits(fresh, hash64(email));
+                    count.incrementAndGet();
+                }
+            });
+            exclusively(() -> {
+                bits = fresh;
+                // Puts and removals made during the scan are not in the count, so they carry over
+                entries.set(count.get() + entries.get() - before[0]);
+                removals.addAndGet(-before[1]);
+                ready = true;
+            });
+        } finally {
+            exclusively(() -> pending = null);
+            rebuildLock.unlock();
+        }
+    }
+
+    private void exclusively(Runnable action) {
+        Lock lock = swapLock.writeLock();
+        lock.lock();
+        try {
+            action.run();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    private void setBits(AtomicLongArray target, long hash) {
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 1; i <= numHashes; i++) {
+            int bit = ((h1 + i * h2) & Integer.MAX_VALUE) % numBits;
+            int word = bit >>> 6;
+            long mask = 1L << bit;
+            long value;
+            while (((value = target.get(word)) & mask) == 0 && !target.compareAndSet(word, value, value | mask)) {
+                // lost a race with another writer on the same word; retry
+            }
+        }
+    }
+
+    // 64-bit FNV-1a over the UTF-16 code units, finished with the MurmurHash3 mixer
+    private static long hash64(String value) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < value.length(); i++) {
+            hash ^= value.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
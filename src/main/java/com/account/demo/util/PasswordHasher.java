@@ -0,0 +1,244 @@
+package com.account.demo.util;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Shared BCrypt encoder plus a dedicated, size-bounded pool for hashing, so the ~100ms per hash
+ * never runs on servlet request threads. When both the pool and its queue are full,
+ * {@link #hashAsync(String)} fails fast with {@link RejectedExecutionException} instead of queueing
+ * without limit; the error handler maps that to 429. {@link #hashAll(List)} does the same for a
+ * whole batch.
+ *
+ * <p>Password verification ({@link #verifyAsync(String, String)}) runs on a second pool of its own,
+ * also bounded. A spike of logins then cannot delay sign-ups and password changes, or the other
+ * way round.
+ *
+ * <p>The pool stays on platform threads even when virtual threads are enabled: hashing is
+ * CPU-bound, and the fixed pool size is what provides the back-pressure.
+ */
+@Component
+public class PasswordHasher {
+
+    private final BCryptPasswordEncoder encoder;
+
+    private final ThreadPoolExecutor executor;
+
+    private final ThreadPoolExecutor verifyExecutor;
+
+    private final int batchParallelism;
+
+    private final Timer hashTimer;
+
+    private final Counter rejections;
+
+    private final Timer verifiedTimer;
+
+    private final Timer mismatchTimer;
+
+    private final Counter verifyRejections;
+
+    private final Counter upgrades;
+
+    // Hash checked for unknown emails so they take as long as a wrong password; created on first use
+    private final AtomicReference<String> dummyHash = new AtomicReference<>();
+
+    public PasswordHasher(@Value("${account.password.bcrypt-strength:10}") int strength,
+                          @Value("${account.password.hash-pool-size:0}") int poolSize,
+                          @Value("${account.password.hash-queue-capacity:64}") int queueCapacity,
+                          @Value("${account.password.batch-parallelism:0}") int batchParallelism,
+                          @Value("${account.password.verify-pool-size:0}") int verifyPoolSize,
+                          @Value("${account.password.verify-queue-capacity:64}") int verifyQueueCapacity,
+                          MeterRegistry registry) {
+        this.encoder = new BCryptPasswordEncoder(strength);
+        this.executor = newPool(poolSize, queueCapacity, "password-hash-");
+        this.verifyExecutor = newPool(verifyPoolSize, verifyQueueCapacity, "password-verify-");
+        // 0 = half the hashing threads, at least one
+        this.batchParallelism = batchParallelism > 0 ? batchParallelism : Math.max(1, executor.getMaximumPoolSize() / 2);
+        this.hashTimer = Timer.builder("account.password.hash")
+                .description("Time spent computing BCrypt hashes")
+                .register(registry);
+        this.rejections = Counter.builder("account.password.hash.rejected")
+                .description("Hash requests rejected because the hashing pool was saturated")
+                .register(registry);
+        Gauge.builder("account.password.hash.queue", executor, e -> e.getQueue().size())
+                .description("Hash requests waiting for a hashing thread")
+                .register(registry);
+        Gauge.builder("account.password.hash.active", executor, ThreadPoolExecutor::getActiveCount)
+                .description("Hashing threads currently busy")
+                .register(registry);
+        this.verifiedTimer = verifyTimer(registry, "verified");
+        this.mismatchTimer = verifyTimer(registry, "mismatch");
+        this.verifyRejections = Counter.builder("account.password.verify.rejected")
+                .description("Verifications rejected because the verification pool was saturated")
+                .register(registry);
+        this.upgrades = Counter.builder("account.password.upgraded")
+                .description("Hashes recomputed at the configured cost after a successful verification")
+                .register(registry);
+        Gauge.builder("account.password.verify.queue", verifyExecutor, e -> e.getQueue().size())
+                .description("Verifications waiting for a verification thread")
+                .register(registry);
+        Gauge.builder("account.password.verify.active", verifyExecutor, ThreadPoolExecutor::getActiveCount)
+                .description("Verification threads currently busy")
+                .register(registry);
+    }
+
+    // Size 0 = one thread per CPU
+    private static ThreadPoolExecutor newPool(int size, int queueCapacity, String threadPrefix) {
+        int threads = size > 0 ? size : Runtime.getRuntime().availableProcessors();
+        return new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), new CustomizableThreadFactory(threadPrefix),
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    private static Timer verifyTimer(MeterRegistry registry, String outcome) {
+        return Timer.builder("account.password.verify")
+                .description("Time spent checking passwords against stored BCrypt hashes")
+                .tag("outcome", outcome)
+                .register(registry);
+    }
+
+    /** Hashes on the calling thread; meant for callers that are already off the request path. */
+    public String hash(String password) {
+        return hashTimer.record(() -> encoder.encode(password));
+    }
+
+    /** Hashes on the hashing pool; throws {@link RejectedExecutionException} when saturated. */
+    public CompletableFuture<String> hashAsync(String password) {
+        try {
+            return CompletableFuture.supplyAsync(() -> hash(password), executor);
+        } catch (RejectedExecutionException e) {
+            rejections.increment();
+            throw e;
+        }
+    }
+
+    /**
+     * Hashes a batch on the hashing pool and waits for it. Each password is its own task, and at
+     * most {@code batch-parallelism} of them are queued or running at a time, so a large batch
+     * shares the pool with single creates and password changes instead of holding every thread:
+     * those wait behind at most that many batch hashes. Throws {@link RejectedExecutionException}
+     * when the pool cannot take a task; on any failure the batch's outstanding tasks are cancelled.
+     */
+    public List<String> hashAll(List<String> passwords) {
+        String[] hashes = new String[passwords.size()];
+        Deque<Future<?>> inFlight = new ArrayDeque<>(batchParallelism);
+        try {
+            for (int i = 0; i < passwords.size(); i++) {
+                if (inFlight.size() == batchParallelism) {
+                    inFlight.removeFirst().get();
+                }
+                int index = i;
+                inFlight.addLast(executor.submit(() -> {
+                    hashes[index] = hash(passwords.get(index));
+                }));
+            }
+            while (!inFlight.isEmpty()) {
+                inFlight.removeFirst().get();
+            }
+        } catch (RejectedExecutionException e) {
+            rejections.increment();
+            cancel(inFlight);
+            throw e;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            cancel(inFlight);
+            throw new IllegalStateException("Interrupted while hashing passwords", e);
+        } catch (ExecutionException e) {
+            cancel(inFlight);
+            throw e.getCause() instanceof RuntimeException cause ? cause : new IllegalStateException(e.getCause());
+        }
+        return Arrays.asList(hashes);
+    }
+
+    // Queued tasks are dropped; a hash already running finishes, since BCrypt does not check interrupts
+    private static void cancel(Deque<Future<?>> tasks) {
+        tasks.forEach(task -> task.cancel(false));
+        tasks.clear();
+    }
+
+    public boolean matches(String password, String hash) {
+        return encoder.matches(password, hash);
+    }
+
+    /**
+     * Checks {@code password} against {@code hash} on the verification pool. Throws
+     * {@link RejectedExecutionException} when the pool is saturated. A {@code null} hash (no such
+     * account) is checked against a dummy hash and never matches. When the password matches a hash
+     * made with a lower cost than configured, a new hash is computed on the same thread and returned
+     * as {@link Verification#upgradedHash()}.
+     */
+    public CompletableFuture<Verification> verifyAsync(String password, String hash) {
+        try {
+            return CompletableFuture.supplyAsync(() -> verify(password, hash), verifyExecutor);
+        } catch (RejectedExecutionException e) {
+            verifyRejections.increment();
+            throw e;
+        }
+    }
+
+    private Verification verify(String password, String hash) {
+        long start = System.nanoTime();
+        boolean matches = encoder.matches(password, hash != null ? hash : dummyHash()) && hash != null;
+        (matches ? verifiedTimer : mismatchTimer).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        if (!matches) {
+            return Verification.MISMATCH;
+        }
+        if (!encoder.upgradeEncoding(hash)) {
+            return Verification.MATCH;
+        }
+        upgrades.increment();
+        return new Verification(true, hash(password));
+    }
+
+    private String dummyHash() {
+        String hash = dummyHash.get();
+        if (hash == null) {
+            dummyHash.compareAndSet(null, encoder.encode("dummy-password-for-unknown-accounts"));
+            hash = dummyHash.get();
+        }
+        return hash;
+    }
+
+    /** Whether a password matched; {@code upgradedHash} is set when the stored hash should be replaced. */
+    public record Verification(boolean matches, String upgradedHash) {
+
+        static final Verification MATCH = new Verification(true, null);
+
+        static final Verification MISMATCH = new Verification(false, null);
+    }
+
+    public int getQueueDepth() {
+        return executor.getQueue().size();
+    }
+
+    public int getVerifyQueueDepth() {
+        return verifyExecutor.getQueue().size();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+        verifyExecutor.shutdown();
+    }
+}
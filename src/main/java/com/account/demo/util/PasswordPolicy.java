@@ -0,0 +1,287 @@
+package com.account.demo.util;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * Password rules ({@code account.password.policy.*}): length bounds, required character classes,
+ * whether characters other than ASCII letters and digits are allowed, and a case-insensitive
+ * deny-list of known-bad passwords. The defaults are the original rule: at least 8 characters,
+ * ASCII letters and digits only, with an uppercase letter, a lowercase letter and a digit.
+ * <p>
+ * {@link #check(String)} reads the password once, without regex, and reports every violation at
+ * once in a {@link Result}. Results are cached per combination of violations, so a check allocates
+ * nothing, valid or not. Deny-list entries are found by a hash of the lowercased password computed
+ * in the same pass.
+ */
+@Component
+public class PasswordPolicy {
+
+    public static final String EMPTY_MESSAGE = "Password cannot be empty";
+
+    public static final String FORMAT_MESSAGE =
+            "Password must contain at least one uppercase letter, one lowercase letter, and one digit";
+
+    public enum Violation {
+        EMPTY,
+        TOO_SHORT,
+        TOO_LONG,
+        MISSING_UPPERCASE,
+        MISSING_LOWERCASE,
+        MISSING_DIGIT,
+        MISSING_SYMBOL,
+        INVALID_CHARACTER,
+        DENIED;
+
+        private final int bit = 1 << ordinal();
+    }
+
+    private static final int UPPERCASE = 1;
+
+    private static final int LOWERCASE = 2;
+
+    private static final int DIGIT = 4;
+
+    private static final int SYMBOL = 8;
+
+    // Violations that the original rule reported with FORMAT_MESSAGE
+    private static final int FORMAT_VIOLATIONS = Violation.TOO_SHORT.bit | Violation.MISSING_UPPERCASE.bit
+            | Violation.MISSING_LOWERCASE.bit | Violation.MISSING_DIGIT.bit | Violation.INVALID_CHARACTER.bit;
+
+    private final int minLength;
+
+    private final int maxLength;
+
+    private final int requiredClasses;
+
+    private final boolean symbolsAllowed;
+
+    private final String tooLongMessage;
+
+    // Deny-list sorted by the hash of the lowercased word, for a binary search without allocation
+    private final int[] deniedHashes;
+
+    private final String[] deniedWords;
+
+    // One shared Result per combination of violations, created on first use. Racing threads may both
+    // create one; either is fine since Results are immutable.
+    private final Result[] results = new Result[1 << Violation.values().length];
+
+    @Autowired
+    public PasswordPolicy(@Value("${account.password.policy.min-length:8}") int minLength,
+                          @Value("${account.password.policy.max-length:0}") int maxLength,
+                          @Value("${account.password.policy.require-uppercase:true}") boolean requireUppercase,
+                          @Value("${account.password.policy.require-lowercase:true}") boolean requireLowercase,
+                          @Value("${account.password.policy.require-digit:true}") boolean requireDigit,
+                          @Value("${account.password.policy.require-symbol:false}") boolean requireSymbol,
+                          @Value("${account.password.policy.allow-symbols:false}") boolean allowSymbols,
+                          @Value("${account.password.policy.deny-list:}") List<String> denyList,
+                          @Value("${account.password.policy.deny-list-path:}") String denyListPath) {
+        this(minLength, maxLength, requireUppercase, requireLowercase, requireDigit, requireSymbol, allowSymbols,
+                Stream.concat(denyList.stream(), readDenyList(denyListPath).stream()).toList());
+    }
+
+    /** A required symbol implies that symbols are allowed. */
+    public PasswordPolicy(int minLength, int maxLength, boolean requireUppercase, boolean requireLowercase,
+                          boolean requireDigit, boolean requireSymbol, boolean allowSymbols, Collection<String> denyList) {
+        this.minLength = minLength;
+        this.maxLength = maxLength;
+        this.requiredClasses = (requireUppercase ? UPPERCASE : 0) | (requireLowercase ? LOWERCASE : 0)
+                | (requireDigit ? DIGIT : 0) | (requireSymbol ? SYMBOL : 0);
+        this.symbolsAllowed = allowSymbols || requireSymbol;
+        this.tooLongMessage = "Password cannot be longer than " + maxLength + " characters";
+        String[] words = denyList.stream()
+                .map(String::trim)
+                .filter(word -> !word.isEmpty())
+                .map(word -> word.toLowerCase(Locale.ROOT))
+                .distinct()
+                .sorted(Comparator.comparingInt(PasswordPolicy::lowercaseHash))
+                .toArray(String[]::new);
+        this.deniedWords = words;
+        this.deniedHashes = Arrays.stream(words).mapToInt(PasswordPolicy::lowercaseHash).toArray();
+    }
+
+    // One entry per line; blank lines and lines starting with # are skipped
+    private static List<String> readDenyList(String path) {
+        if (path == null || path.isBlank()) {
+            return List.of();
+        }
+        try (Stream<String> lines = Files.lines(Path.of(path), StandardCharsets.UTF_8)) {
+            return lines.filter(line -> !line.startsWith("#")).toList();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read password deny-list " + path, e);
+        }
+    }
+
+    public Result check(String password) {
+        if (password == null) {
+            return Result.of(Violation.EMPTY.bit, this);
+        }
+        int length = password.length();
+        boolean blank = true;
+        boolean invalid = false;
+        int classes = 0;
+        int hash = 0;
+        for (int i = 0; i < length; i++) {
+            char c = password.charAt(i);
+            // Same notion of blank as String.trim()
+            blank &= c <= ' ';
+            if (c >= 'a' && c <= 'z') {
+                classes |= LOWERCASE;
+            } else if (c >= 'A' && c <= 'Z') {
+                classes |= UPPERCASE;
+            } else if (c >= '0' && c <= '9') {
+                classes |= DIGIT;
+            } else if (!symbolsAllowed) {
+                invalid = true;
+            } else {
+                classes |= Character.isUpperCase(c) ? UPPERCASE
+                        : Character.isLowerCase(c) ? LOWERCASE
+                        : Character.isDigit(c) ? DIGIT
+                        : SYMBOL;
+            }
+            hash = 31 * hash + Character.toLowerCase(c);
+        }
+        if (blank) {
+            return Result.of(Violation.EMPTY.bit, this);
+        }
+        int violations = 0;
+        if (length < minLength) {
+            violations |= Violation.TOO_SHORT.bit;
+        }
+        if (maxLength > 0 && length > maxLength) {
+            violations |= Violation.TOO_LONG.bit;
+        }
+        int missing = requiredClasses & ~classes;
+        if ((missing & UPPERCASE) != 0) {
+            violations |= Violation.MISSING_UPPERCASE.bit;
+        }
+        if ((missing & LOWERCASE) != 0) {
+            violations |= Violation.MISSING_LOWERCASE.bit;
+        }
+        if ((missing & DIGIT) != 0) {
+            violations |= Violation.MISSING_DIGIT.bit;
+        }
+        if ((missing & SYMBOL) != 0) {
+            violations |= Violation.MISSING_SYMBOL.bit;
+        }
+        if (invalid) {
+            violations |= Violation.INVALID_CHARACTER.bit;
+        }
+        if (isDenied(password, hash)) {
+            violations |= Violation.DENIED.bit;
+        }
+        return Result.of(violations, this);
+    }
+
+    private boolean isDenied(String password, int hash) {
+        int index = Arrays.binarySearch(deniedHashes, hash);
+        if (index < 0) {
+            return false;
+        }
+        while (index > 0 && deniedHashes[index - 1] == hash) {
+            index--;
+        }
+        for (; index < deniedHashes.length && deniedHashes[index] == hash; index++) {
+            if (deniedWords[index].equalsIgnoreCase(password)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static int lowercaseHash(String word) {
+        int hash = 0;
+        for (int i = 0; i < word.length(); i++) {
+            hash = 31 * hash + Character.toLowerCase(word.charAt(i));
+        }
+        return hash;
+    }
+
+    /** The violations of one password; immutable and shared between checks. */
+    public static final class Result {
+
+        private final int violations;
+
+        private final String message;
+
+        private Result(int violations, String message) {
+            this.violations = violations;
+            this.message = message;
+        }
+
+        private static Result of(int violations, PasswordPolicy policy) {
+            Result result = policy.results[violations];
+            if (result == null) {
+                result = new Result(violations, policy.message(violations));
+                policy.results[violations] = result;
+            }
+            return result;
+        }
+
+        public boolean isValid() {
+            return violations == 0;
+        }
+
+        public boolean has(Violation violation) {
+            return (violations & violation.bit) != 0;
+        }
+
+        public Set<Violation> violations() {
+            EnumSet<Violation> set = EnumSet.noneOf(Violation.class);
+            for (Violation violation : Violation.values()) {
+                if (has(violation)) {
+                    set.add(violation);
+                }
+            }
+            return set;
+        }
+
+        /**
+         * One message for the client, {@code null} when valid: the original texts where they apply,
+         * followed by one per additional violation.
+         */
+        public String message() {
+            return message;
+        }
+    }
+
+    private String message(int violations) {
+        if (violations == 0) {
+            return null;
+        }
+        if ((violations & Violation.EMPTY.bit) != 0) {
+            return EMPTY_MESSAGE;
+        }
+        List<String> messages = new ArrayList<>();
+        if ((violations & FORMAT_VIOLATIONS) != 0) {
+            messages.add(FORMAT_MESSAGE);
+        }
+        if ((violations & Violation.TOO_LONG.bit) != 0) {
+            messages.add(tooLongMessage);
+        }
+        if ((violations & Violation.MISSING_SYMBOL.bit) != 0) {
+            messages.add("Password must contain at least one symbol");
+        }
+        if ((violations & Violation.DENIED.bit) != 0) {
+            messages.add("Password is too common");
+        }
+        return String.join("; ", messages);
+    }
+}
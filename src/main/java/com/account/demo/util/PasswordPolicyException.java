@@ -0,0 +1,25 @@
+package com.account.demo.util;
+
+/**
+ * A password rejected by {@link PasswordPolicy}. It is an {@link IllegalArgumentException} with the
+ * same messages the service always used. It carries no stack trace, because a rejected password is
+ * an ordinary client error and not a fault.
+ */
+public class PasswordPolicyException extends IllegalArgumentException {
+
+    private final transient PasswordPolicy.Result result;
+
+    public PasswordPolicyException(PasswordPolicy.Result result) {
+        super(result.message());
+        this.result = result;
+    }
+
+    public PasswordPolicy.Result getResult() {
+        return result;
+    }
+
+    @Override
+    public Throwable fillInStackTrace() {
+        return this;
+    }
+}
@@ -5,9 +5,11 @@ import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 
 public class PasswordUtil {
 
+    // BCryptPasswordEncoder is thread-safe, so one instance is shared. Application code should use
+    // the PasswordHasher component, which honours the configured strength and hashing pool.
+    private static final BCryptPasswordEncoder ENCODER = new BCryptPasswordEncoder();
+
     public static String hashPassword(String password) {
-        // Use a BCryptPasswordEncoder to securely hash passwords
-        BCryptPasswordEncoder encoder = new BCryptPasswordEncoder();
-        return encoder.encode(password);
+        return ENCODER.encode(password);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,291 @@
+package com.account.demo.util;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * In-process admission control for {@code /api/**} ({@code account.rate-limit.*}).
+ * <ul>
+ *   <li>Per-client rate limits, separate for reads (GET/HEAD) and writes. Each limit is a token
+ *   bucket kept as a single {@link AtomicLong} (the GCRA "theoretical arrival time"), so taking a
+ *   token is one CAS and never locks. Buckets live in a {@link ConcurrentHashMap} and are evicted
+ *   once they have been full for {@code idle-timeout}.</li>
+ *   <li>A global cap on concurrent requests that hash passwords (create, batch, patch, verify), so BCrypt
+ *   work cannot pile up behind the hashing pool. Async requests hold their permit until the
+ *   response completes.</li>
+ * </ul>
+ * Rejections are answered with 429 and {@code Retry-After} before any controller code runs.
+ * Clients are identified by {@code client-header} when configured and present, else by remote
+ * address.
+ */
+@Component
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private static final String REJECTED_BODY = "{\"error\":\"Too many requests\"}";
+
+    private final boolean enabled;
+
+    private final String clientHeader;
+
+    private final Limit readLimit;
+
+    private final Limit writeLimit;
+
+    private final Semaphore hashingPermits;
+
+    private final long idleNanos;
+
+    private final LongSupplier clock;
+
+    private final ConcurrentHashMap<String, Client> clients = new ConcurrentHashMap<>();
+
+    private final ScheduledExecutorService evictor;
+
+    private final Counter readRejections;
+
+    private final Counter writeRejections;
+
+    private final Counter concurrencyRejections;
+
+    @Autowired
+    public RateLimitFilter(@Value("${account.rate-limit.enabled:true}") boolean enabled,
+                           @Value("${account.rate-limit.client-header:}") String clientHeader,
+                           @Value("${account.rate-limit.read.per-second:200}") double readRate,
+                           @Value("${account.rate-limit.read.burst:400}") int readBurst,
+                           @Value("${account.rate-limit.write.per-second:20}") double writeRate,
+                           @Value("${account.rate-limit.write.burst:40}") int writeBurst,
+                           @Value("${account.rate-limit.hashing-concurrency:64}") int hashingConcurrency,
+                           @Value("${account.rate-limit.idle-timeout:10m}") Duration idleTimeout,
+                           MeterRegistry registry) {
+        this(enabled, clientHeader, new Limit(readRate, readBurst), new Limit(writeRate, writeBurst),
+                hashingConcurrency, idleTimeout, System::nanoTime, registry);
+        if (enabled) {
+            long period = Math.max(idleTimeout.toMillis() / 2, 1000);
+            evictor.scheduleWithFixedDelay(this::evictIdle, period, period, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    RateLimitFilter(boolean enabled, String clientHeader, Limit readLimit, Limit writeLimit, int hashingConcurrency,
+                    Duration idleTimeout, LongSupplier clock, MeterRegistry registry) {
+        this.enabled = enabled;
+        this.clientHeader = clientHeader.isBlank() ? null : clientHeader;
+        this.readLimit = readLimit;
+        this.writeLimit = writeLimit;
+        this.hashingPermits = new Semaphore(hashingConcurrency);
+        this.idleNanos = idleTimeout.toNanos();
+        this.clock = clock;
+        this.evictor = enabled
+                ? Executors.newSingleThreadScheduledExecutor(new CustomizableThreadFactory("rate-limit-evictor-"))
+                : null;
+        this.readRejections = rejectionCounter(registry, "read");
+        this.writeRejections = rejectionCounter(registry, "write");
+        this.concurrencyRejections = rejectionCounter(registry, "concurrency");
+        Gauge.builder("account.rate-limit.clients", clients, ConcurrentHashMap::size)
+                .description("Clients with a live rate-limit bucket")
+                .register(registry);
+    }
+
+    private static Counter rejectionCounter(MeterRegistry registry, String reason) {
+        return Counter.builder("account.rate-limit.rejected")
+                .description("Requests answered with 429 by the rate limiter")
+                .tag("reason", reason)
+                .register(registry);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled || !request.getRequestURI().startsWith("/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        long now = clock.getAsLong();
+        Client client = clients.computeIfAbsent(clientKey(request), key -> new Client(now));
+        boolean read = HttpMethod.GET.matches(request.getMethod()) || HttpMethod.HEAD.matches(request.getMethod());
+        long waitNanos = read ? readLimit.acquire(client.read, now) : writeLimit.acquire(client.write, now);
+        if (waitNanos > 0) {
+            (read ? readRejections : writeRejections).increment();
+            reject(response, waitNanos);
+            return;
+        }
+        if (!hashesPassword(request)) {
+            chain.doFilter(request, response);
+            return;
+        }
+        if (!hashingPermits.tryAcquire()) {
+            concurrencyRejections.increment();
+            reject(response, TimeUnit.SECONDS.toNanos(1));
+            return;
+        }
+        boolean async = false;
+        try {
+            chain.doFilter(request, response);
+            async = request.isAsyncStarted();
+            if (async) {
+                request.getAsyncContext().addListener(new PermitRelease(hashingPermits));
+            }
+        } finally {
+            if (!async) {
+                hashingPermits.release();
+            }
+        }
+    }
+
+    private String clientKey(HttpServletRequest request) {
+        if (clientHeader != null) {
+            String id = request.getHeader(clientHeader);
+            if (id != null && !id.isBlank()) {
+                return id;
+            }
+        }
+        return request.getRemoteAddr();
+    }
+
+    // The endpoints that end up in BCrypt
+    private static boolean hashesPassword(HttpServletRequest request) {
+        String method = request.getMethod();
+        if (HttpMethod.PATCH.matches(method)) {
+            return true;
+        }
+        String uri = request.getRequestURI();
+        return HttpMethod.POST.matches(method)
+                && (uri.endsWith("/create") || uri.endsWith("/batch") || uri.endsWith("/verify"));
+    }
+
+    private static void reject(HttpServletResponse response, long waitNanos) throws IOException {
+        long seconds = Math.max(1, (waitNanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(seconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.getWriter().write(REJECTED_BODY);
+    }
+
+    /**
+     * Drops clients whose buckets have been full for the idle timeout. A request racing the removal
+     * may spend a token on the dropped entry; the next one starts from a full bucket, which at worst
+     * lets a client that was idle for the whole timeout through one extra burst.
+     */
+    void evictIdle() {
+        long now = clock.getAsLong();
+        clients.values().removeIf(client -> now - client.read.get() > idleNanos && now - client.write.get() > idleNanos);
+    }
+
+    int clientCount() {
+        return clients.size();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (evictor != null) {
+            evictor.shutdownNow();
+        }
+    }
+
+    private static final class Client {
+
+        // Theoretical arrival time per bucket; a value at or before "now" means the bucket is full
+        final AtomicLong read;
+
+        final AtomicLong write;
+
+        Client(long now) {
+            this.read = new AtomicLong(now);
+            this.write = new AtomicLong(now);
+        }
+    }
+
+    /** Rate and burst of one bucket, as a generic cell rate algorithm over nanoTime. */
+    static final class Limit {
+
+        private final long intervalNanos;
+
+        private final long toleranceNanos;
+
+        Limit(double perSecond, int burst) {
+            this.intervalNanos = Math.max(1, (long) (TimeUnit.SECONDS.toNanos(1) / perSecond));
+            this.toleranceNanos = intervalNanos * Math.max(1, burst);
+        }
+
+        /** Takes one token; returns 0 on success, else how long until one is available. */
+        long acquire(AtomicLong arrival, long now) {
+            while (true) {
+                long tat = arrival.get();
+                // Compared by difference: nanoTime values may be negative
+                long next = (tat - now > 0 ? tat : now) + intervalNanos;
+                if (next - now > toleranceNanos) {
+                    return next - now - toleranceNanos;
+                }
+                if (arrival.compareAndSet(tat, next)) {
+                    return 0;
+                }
+            }
+        }
+    }
+
+    private static final class PermitRelease implements AsyncListener {
+
+        private final Semaphore permits;
+
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        PermitRelease(Semaphore permits) {
+            this.permits = permits;
+        }
+
+        private void release() {
+            if (released.compareAndSet(false, true)) {
+                permits.release();
+            }
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            release();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            release();
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            release();
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            // A restarted async cycle drops its listeners; stay registered until the real completion
+            event.getAsyncContext().addListener(this);
+        }
+    }
+}
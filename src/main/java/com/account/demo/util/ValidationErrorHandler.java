@@ -1,5 +1,13 @@
 package com.account.demo.util;
 
+import com.account.demo.model.ErrorResponse;
+import com.account.demo.service.DuplicateEmailException;
+import com.account.demo.service.IdempotencyKeyMismatchException;
+import com.account.demo.service.PreconditionFailedException;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MethodArgumentNotValidException;
@@ -8,24 +16,97 @@ import org.springframework.web.bind.annotation.ExceptionHandler;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
 
 @ControllerAdvice
 public class ValidationErrorHandler {
 
+    private static final ErrorResponse CONFLICTING_DATA = ErrorResponse.of("Request conflicts with existing data");
+
+    private static final ErrorResponse CONCURRENT_MODIFICATION = ErrorResponse.of("Account was modified concurrently, reload and retry");
+
+    private static final ErrorResponse BUSY = ErrorResponse.of("Server is busy, please retry later");
+
+    private final MeterRegistry registry;
+
+    public ValidationErrorHandler(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    // Error paths are not hot, so the per-call counter lookup is fine here
+    private void countError(Exception ex, HttpStatus status) {
+        registry.counter("account.errors", "exception", ex.getClass().getSimpleName(),
+                "status", String.valueOf(status.value())).increment();
+    }
+
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<Map<String, String>> handleMethodArgumentNotValidException(MethodArgumentNotValidException ex) {
         Map<String, String> errors = new HashMap<>();
         ex.getBindingResult().getFieldErrors().forEach(error -> {
             errors.put(error.getField(), error.getDefaultMessage());
         });
+        countError(ex, HttpStatus.BAD_REQUEST);
         return new ResponseEntity<>(errors, HttpStatus.BAD_REQUEST);
     }
 
     @ExceptionHandler(IllegalArgumentException.class)
-    public ResponseEntity<Map<String, String>> handleIllegalArgumentException(IllegalArgumentException ex) {
-        Map<String, String> errors = new HashMap<>();
-        errors.put("error", ex.getMessage());
+    public ResponseEntity<ErrorResponse> handleIllegalArgumentException(IllegalArgumentException ex) {
+        ErrorResponse errors = ErrorResponse.of(ex.getMessage());
+        countError(ex, HttpStatus.BAD_REQUEST);
+        return new ResponseEntity<>(errors, HttpStatus.BAD_REQUEST);
+    }
+
+    // Same body as any other IllegalArgumentException, plus the codes of every violated rule
+    @ExceptionHandler(PasswordPolicyException.class)
+    public ResponseEntity<ErrorResponse> handlePasswordPolicyException(PasswordPolicyException ex) {
+        ErrorResponse errors = new ErrorResponse(ex.getMessage(), ex.getResult().violations());
+        countError(ex, HttpStatus.BAD_REQUEST);
         return new ResponseEntity<>(errors, HttpStatus.BAD_REQUEST);
+    }
+
+    @ExceptionHandler(DuplicateEmailException.class)
+    public ResponseEntity<ErrorResponse> handleDuplicateEmailException(DuplicateEmailException ex) {
+        ErrorResponse errors = ErrorResponse.of(ex.getMessage());
+        countError(ex, HttpStatus.CONFLICT);
+        return new ResponseEntity<>(errors, HttpStatus.CONFLICT);
+    }
+
+    // An Idempotency-Key was replayed with a different payload
+    @ExceptionHandler(IdempotencyKeyMismatchException.class)
+    public ResponseEntity<ErrorResponse> handleIdempotencyKeyMismatchException(IdempotencyKeyMismatchException ex) {
+        ErrorResponse errors = ErrorResponse.of(ex.getMessage());
+        countError(ex, HttpStatus.UNPROCESSABLE_ENTITY);
+        return new ResponseEntity<>(errors, HttpStatus.UNPROCESSABLE_ENTITY);
+    }
+
+    // Lost a race on a unique index (e.g. two sign-ups with the same email at once)
+    @ExceptionHandler(DataIntegrityViolationException.class)
+    public ResponseEntity<ErrorResponse> handleDataIntegrityViolationException(DataIntegrityViolationException ex) {
+        countError(ex, HttpStatus.CONFLICT);
+        return new ResponseEntity<>(CONFLICTING_DATA, HttpStatus.CONFLICT);
+    }
+
+    // If-Match named a version other than the current one
+    @ExceptionHandler(PreconditionFailedException.class)
+    public ResponseEntity<ErrorResponse> handlePreconditionFailedException(PreconditionFailedException ex) {
+        ErrorResponse errors = ErrorResponse.of(ex.getMessage());
+        countError(ex, HttpStatus.PRECONDITION_FAILED);
+        return new ResponseEntity<>(errors, HttpStatus.PRECONDITION_FAILED);
+    }
+
+    // Another writer changed the row between our read and our save
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<ErrorResponse> handleOptimisticLockingFailureException(OptimisticLockingFailureException ex) {
+        countError(ex, HttpStatus.CONFLICT);
+        return new ResponseEntity<>(CONCURRENT_MODIFICATION, HttpStatus.CONFLICT);
+    }
 
+    // A bounded worker pool (e.g. password hashing) is saturated: ask the client to back off
+    @ExceptionHandler(RejectedExecutionException.class)
+    public ResponseEntity<ErrorResponse> handleRejectedExecutionException(RejectedExecutionException ex) {
+        countError(ex, HttpStatus.TOO_MANY_REQUESTS);
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(BUSY);
     }
 }
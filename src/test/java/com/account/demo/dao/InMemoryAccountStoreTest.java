@@ -0,0 +1,133 @@
+package com.account.demo.dao;
+
+import com.account.demo.model.Account;
+import com.account.demo.model.AccountView;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class InMemoryAccountStoreTest {
+
+    @TempDir
+    Path tempDir;
+
+    private InMemoryAccountStore newStore(Path snapshot) {
+        return new InMemoryAccountStore(snapshot == null ? "" : snapshot.toString(), Duration.ZERO);
+    }
+
+    @Test
+    public void testSave_AssignsIdsAndIndexesEmail() {
+        InMemoryAccountStore store = newStore(null);
+
+        Account saved = store.save(new Account(null, "John Doe", "johndoe@example.com", "hash"));
+
+        assertEquals(1L, saved.getId());
+        assertEquals(0L, saved.getVersion());
+        assertTrue(store.existsByEmail("johndoe@example.com"));
+        assertEquals(new AccountView(1L, "John Doe", "johndoe@example.com", 0L), store.findViewByEmail("johndoe@example.com").orElseThrow());
+    }
+
+    @Test
+    public void testSave_DuplicateEmailRejected() {
+        InMemoryAccountStore store = newStore(null);
+        store.save(new Account(null, "John Doe", "johndoe@example.com", "hash"));
+
+        assertThrows(DataIntegrityViolationException.class,
+                () -> store.save(new Account(null, "Jane Doe", "johndoe@example.com", "hash")));
+        assertEquals(1, store.size());
+    }
+
+    @Test
+    public void testSaveAll_IsAllOrNothing() {
+        InMemoryAccountStore store = newStore(null);
+        store.save(new Account(null, "John Doe", "taken@example.com", "hash"));
+
+        List<Account> batch = List.of(
+                new Account(null, "A", "a@example.com", "hash"),
+                new Account(null, "B", "taken@example.com", "hash"));
+
+        assertThrows(DataIntegrityViolationException.class, () -> store.saveAll(batch));
+        assertFalse(store.existsByEmail("a@example.com"), "Emails claimed by a failed batch must be released");
+        assertEquals(1, store.size());
+    }
+
+    @Test
+    public void testUpdateNameAndEmail_VersionedAndMovesEmailIndex() {
+        InMemoryAccountStore store = newStore(null);
+        Long id = store.save(new Account(null, "John Doe", "johndoe@example.com", "hash")).getId();
+
+        assertEquals(0, store.updateNameAndEmail(id, "Johnny", "johnny@example.com", 5L), "Stale version must not match");
+        assertEquals(1, store.updateNameAndEmail(id, "Johnny", "johnny@example.com", 0L));
+        assertEquals(1, store.updateNameAndEmail(id, "Johnny", "johnny@example.com", null));
+
+        assertEquals(2L, store.findVersionById(id).orElseThrow());
+        assertFalse(store.existsByEmail("johndoe@example.com"));
+        assertEquals(id, store.findViewByEmail("johnny@example.com").orElseThrow().id());
+    }
+
+    @Test
+    public void testUpdateNameAndEmail_EmailOfAnotherAccountRejected() {
+        InMemoryAccountStore store = newStore(null);
+        store.save(new Account(null, "John Doe", "johndoe@example.com", "hash"));
+        Long id = store.save(new Account(null, "Jane Doe", "janedoe@example.com", "hash")).getId();
+
+        assertThrows(DataIntegrityViolationException.class,
+                () -> store.updateNameAndEmail(id, "Jane Doe", "johndoe@example.com", null));
+        assertEquals("janedoe@example.com", store.findViewById(id).orElseThrow().email());
+    }
+
+    @Test
+    public void testDeleteAccountById_FreesEmail() {
+        InMemoryAccountStore store = newStore(null);
+        Long id = store.save(new Account(null, "John Doe", "johndoe@example.com", "hash")).getId();
+
+        assertEquals(1, store.deleteAccountById(id));
+        assertEquals(0, store.deleteAccountById(id));
+        assertFalse(store.existsByEmail("johndoe@example.com"));
+        assertTrue(store.findViewById(id).isEmpty());
+    }
+
+    @Test
+    public void testFindViewsByIdGreaterThan_KeysetPages() throws Exception {
+        InMemoryAccountStore store = newStore(null);
+        for (int i = 0; i < 5; i++) {
+            store.save(new Account(null, "User " + i, "user" + i + "@example.com", "hash"));
+        }
+        store.deleteAccountById(3L);
+
+        List<AccountView> page = store.findViewsByIdGreaterThan(1L, 2);
+        assertEquals(List.of(2L, 4L), page.stream().map(AccountView::id).toList());
+
+        List<Long> exported = new ArrayList<>();
+        assertEquals(4, store.forEachView(view -> exported.add(view.id())));
+        assertEquals(List.of(1L, 2L, 4L, 5L), exported);
+    }
+
+    @Test
+    public void testSnapshot_RestoredOnStartup() throws Exception {
+        Path snapshot = tempDir.resolve("accounts.snapshot");
+        InMemoryAccountStore store = newStore(snapshot);
+        store.save(new Account(null, "John Doe", "johndoe@example.com", "hash"));
+        Long id = store.save(new Account(null, "Jöhn Ünicode", "unicode@example.com", "hash")).getId();
+        store.updatePassword(id, "newHash", null);
+        store.close();
+
+        InMemoryAccountStore restored = newStore(snapshot);
+
+        assertEquals(2, restored.size());
+        Account account = restored.findById(id).orElseThrow();
+        assertEquals("Jöhn Ünicode", account.getName());
+        assertEquals("newHash", account.getPassword());
+        assertEquals(1L, account.getVersion());
+        assertTrue(restored.existsByEmail("johndoe@example.com"));
+        assertEquals(3L, restored.save(new Account(null, "Next", "next@example.com", "hash")).getId(),
+                "Ids must continue after the restored ones");
+    }
+}
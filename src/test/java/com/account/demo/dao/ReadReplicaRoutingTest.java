@@ -0,0 +1,59 @@
+package com.account.demo.dao;
+
+import com.account.demo.model.Account;
+import com.account.demo.model.AccountBuilder;
+import com.account.demo.service.AccountService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Which reads go to a replica. The replica is a second pool on the primary's database, so both
+ * sides see the same rows and only the connection counters tell them apart.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:replica_routing",
+        "account.datasource.replicas.urls=jdbc:h2:mem:replica_routing"})
+public class ReadReplicaRoutingTest {
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private AccountStore accountStore;
+
+    @Autowired
+    private MeterRegistry registry;
+
+    private double replicaConnections() {
+        return registry.get("account.datasource.read.connections").tag("target", "replica-0").counter().count();
+    }
+
+    @Test
+    public void testOnlyPageReadsUseTheReplica() throws Exception {
+        Account created = accountService.createAccount(new AccountBuilder()
+                .setName("John Doe")
+                .setEmail("routing-" + System.nanoTime() + "@example.com")
+                .setPassword("Password123")
+                .build());
+        double before = replicaConnections();
+
+        // Cached and ETag-bearing reads, and the full-table walks, stay on the primary
+        assertEquals(created.getEmail(), accountService.getAccountById(created.getId()).email());
+        accountService.exportAccounts(OutputStream.nullOutputStream());
+        List<String> emails = new ArrayList<>();
+        accountStore.forEachEmail(emails::add);
+        assertTrue(emails.contains(created.getEmail()));
+        assertEquals(before, replicaConnections());
+
+        assertFalse(accountService.getAccounts(null, 10).items().isEmpty());
+        assertEquals(before + 1, replicaConnections());
+    }
+}
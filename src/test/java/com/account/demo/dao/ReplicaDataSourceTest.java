@@ -0,0 +1,65 @@
+package com.account.demo.dao;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ReplicaDataSourceTest {
+
+    private static DataSource h2(String url) {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL(url);
+        dataSource.setUser("sa");
+        return dataSource;
+    }
+
+    private static String urlOf(DataSource dataSource) throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            return connection.getMetaData().getURL();
+        }
+    }
+
+    private static double connections(MeterRegistry registry, String target) {
+        return registry.get("account.datasource.read.connections").tag("target", target).counter().count();
+    }
+
+    @Test
+    public void testDownReplicaIsSkipped() throws Exception {
+        MeterRegistry registry = new SimpleMeterRegistry();
+        DataSource primary = h2("jdbc:h2:mem:replica_test_primary");
+        // Nothing listens on port 1, so this replica refuses every connection
+        List<DataSource> replicas = List.of(h2("jdbc:h2:tcp://localhost:1/mem:down"), h2("jdbc:h2:mem:replica_test_up"));
+        try (ReplicaDataSource dataSource = new ReplicaDataSource(primary, replicas, Duration.ofHours(1), registry)) {
+            for (int i = 0; i < 4; i++) {
+                assertEquals("jdbc:h2:mem:replica_test_up", urlOf(dataSource));
+            }
+            dataSource.probe();
+            assertEquals(1, dataSource.healthyCount());
+            assertEquals(4, connections(registry, "replica-1"));
+            assertEquals(0, connections(registry, "replica-0"));
+            assertEquals(0, connections(registry, "primary"));
+        }
+    }
+
+    @Test
+    public void testFallsBackToPrimaryWithoutHealthyReplica() throws Exception {
+        MeterRegistry registry = new SimpleMeterRegistry();
+        DataSource primary = h2("jdbc:h2:mem:replica_test_primary");
+        try (ReplicaDataSource dataSource = new ReplicaDataSource(primary, List.of(h2("jdbc:h2:tcp://localhost:1/mem:down")),
+                Duration.ofHours(1), registry)) {
+            assertEquals("jdbc:h2:mem:replica_test_primary", urlOf(dataSource));
+            assertEquals("jdbc:h2:mem:replica_test_primary", urlOf(dataSource));
+            assertEquals(0, dataSource.healthyCount());
+            assertEquals(2, connections(registry, "primary"));
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package com.account.demo.journal;
+
+import com.account.demo.model.AccountView;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AccountJournalTest {
+
+    @TempDir
+    Path tempDir;
+
+    // Frame header plus the fixed part of an OPENED record, which has no strings
+    private static int markerSize() {
+        return 8 + JournalEntry.FIXED_SIZE;
+    }
+
+    private List<Path> listFiles() throws Exception {
+        try (Stream<Path> files = Files.list(tempDir)) {
+            return files.sorted().toList();
+        }
+    }
+
+    private AccountJournal open(Path path, String fsync) {
+        return new AccountJournal(true, path.toString(), fsync, Duration.ofMillis(10), 1024, new SimpleMeterRegistry());
+    }
+
+    @Test
+    public void testReplay_RebuildsLatestState() throws Exception {
+        Path path = tempDir.resolve("accounts.journal");
+        AccountJournal journal = open(path, "always");
+        journal.created(new AccountView(1L, "John Doe", "johndoe@example.com", 0L));
+        journal.created(new AccountView(2L, "Jane Doe", "janedoe@example.com", 0L));
+        // Journaled out of order: the older version must not win
+        journal.updated(new AccountView(1L, "Johnny Doe", "johnny@example.com", 2L));
+        journal.passwordChanged(new AccountView(1L, "John Doe", "johndoe@example.com", 1L));
+        journal.deleted(2L);
+        journal.updated(new AccountView(2L, "Late Update", "janedoe@example.com", 1L));
+        journal.close();
+
+        JournalReplay.Result result = JournalReplay.replay(path);
+
+        assertEquals(7, result.records(), "Six changes after the run marker");
+        assertEquals(1L, result.counts().get(JournalEntry.Type.OPENED));
+        assertFalse(result.corrupt());
+        assertEquals(List.of(new AccountView(1L, "Johnny Doe", "johnny@example.com", 2L)), List.copyOf(result.accounts().values()));
+    }
+
+    @Test
+    public void testReopen_CutsTornFrameAndKeepsAppending() throws Exception {
+        Path path = tempDir.resolve("accounts.journal");
+        AccountJournal journal = open(path, "interval");
+        journal.created(new AccountView(1L, "Jöhn Doe", "johndoe@example.com", 0L));
+        journal.flush();
+        journal.close();
+        long intact = Files.size(path);
+
+        // Simulate a crash in the middle of writing the next frame
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.APPEND)) {
+            channel.write(ByteBuffer.wrap(new byte[]{0, 0, 0, 40, 1, 2}));
+        }
+        assertTrue(JournalReplay.replay(path).corrupt());
+
+        journal = open(path, "never");
+        journal.flush();
+        assertEquals(intact + markerSize(), Files.size(path), "Torn frame should be cut off on open");
+        journal.created(new AccountView(2L, "Jane Doe", "janedoe@example.com", 0L));
+        journal.close();
+
+        JournalReplay.Result result = JournalReplay.replay(path);
+        assertFalse(result.corrupt());
+        assertEquals(List.of(path), listFiles(), "A torn tail is cut off, not moved aside");
+        assertEquals("Jöhn Doe", result.accounts().get(1L).name());
+        assertEquals(2, result.accounts().size());
+    }
+
+    @Test
+    public void testReplay_NewRunMayReuseIds() throws Exception {
+        Path path = tempDir.resolve("accounts.journal");
+        AccountJournal journal = open(path, "always");
+        journal.created(new AccountView(1L, "John Doe", "johndoe@example.com", 0L));
+        journal.updated(new AccountView(1L, "Johnny Doe", "johndoe@example.com", 2L));
+        journal.created(new AccountView(2L, "Jane Doe", "janedoe@example.com", 0L));
+        journal.deleted(2L);
+        journal.created(new AccountView(3L, "Kept Doe", "kept@example.com", 0L));
+        journal.close();
+
+        // Restarted on an empty in-memory database: ids start over at 1
+        journal = open(path, "always");
+        journal.created(new AccountView(1L, "Alice Roe", "alice@example.com", 0L));
+        journal.created(new AccountView(2L, "Bob Roe", "bob@example.com", 0L));
+        journal.close();
+
+        JournalReplay.Result result = JournalReplay.replay(path);
+
+        assertEquals(2L, result.counts().get(JournalEntry.Type.OPENED));
+        assertEquals(List.of(new AccountView(1L, "Alice Roe", "alice@example.com", 0L),
+                new AccountView(2L, "Bob Roe", "bob@example.com", 0L),
+                new AccountView(3L, "Kept Doe", "kept@example.com", 0L)), List.copyOf(result.accounts().values()));
+    }
+
+    @Test
+    public void testReopen_MovesMidFileCorruptionAside() throws Exception {
+        Path path = tempDir.resolve("accounts.journal");
+        AccountJournal journal = open(path, "always");
+        journal.created(new AccountView(1L, "John Doe", "johndoe@example.com", 0L));
+        journal.created(new AccountView(2L, "Jane Doe", "janedoe@example.com", 0L));
+        journal.close();
+        byte[] original = Files.readAllBytes(path);
+
+        // Flip a payload byte of the first account record; the second one stays intact after it
+        byte[] damaged = original.clone();
+        damaged[markerSize() + 8 + 20] ^= 0x55;
+        Files.write(path, damaged);
+
+        journal = open(path, "always");
+        journal.created(new AccountView(3L, "Bob Roe", "bob@example.com", 0L));
+        journal.close();
+
+        List<Path> files = listFiles();
+        assertEquals(2, files.size());
+        Path aside = files.stream().filter(file -> !file.equals(path)).findFirst().orElseThrow();
+        assertTrue(aside.getFileName().toString().startsWith("accounts.journal.corrupt-"));
+        assertArrayEquals(damaged, Files.readAllBytes(aside), "Nothing may be cut from a file with intact data after the damage");
+
+        JournalReplay.Result result = JournalReplay.replay(path);
+        assertFalse(result.corrupt());
+        assertEquals(List.of(3L), List.copyOf(result.accounts().keySet()));
+    }
+
+    @Test
+    public void testDisabled_WritesNothing() throws Exception {
+        Path path = tempDir.resolve("accounts.journal");
+        AccountJournal journal = new AccountJournal(false, path.toString(), "always", Duration.ZERO, 1, new SimpleMeterRegistry());
+
+        journal.created(new AccountView(1L, "John Doe", "johndoe@example.com", 0L));
+        journal.flush();
+        journal.close();
+
+        assertFalse(Files.exists(path));
+    }
+}
@@ -0,0 +1,75 @@
+package com.account.demo.service;
+
+import com.account.demo.model.AccountView;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AccountSearchIndexTest {
+
+    private final AccountSearchIndex index = new AccountSearchIndex(true, new SimpleMeterRegistry());
+
+    private List<Long> ids(List<AccountView> views) {
+        return views.stream().map(AccountView::id).toList();
+    }
+
+    @Test
+    public void testSearch_SubstringAndWordPrefix() {
+        index.put(new AccountView(1L, "John Doe", "john.doe@example.com", 0L));
+        index.put(new AccountView(2L, "Jane Roe", "jane@corp.io", 0L));
+        index.put(new AccountView(3L, "Maryjo Smith", "mary@example.com", 0L));
+
+        assertEquals(List.of(1L, 3L), ids(index.search("EXAMPLE", 10)), "Case-insensitive substring of the email");
+        assertEquals(List.of(1L), ids(index.search("n do", 10)), "Substrings may span words");
+        assertEquals(List.of(1L), ids(index.search("jo", 10)), "Two characters match word prefixes, not \"Maryjo\"");
+        assertEquals(List.of(2L), ids(index.search("ja", 10)));
+        assertEquals(List.of(3L), ids(index.search("ryjo", 10)));
+        assertEquals(List.of(), index.search("xyz", 10));
+        assertEquals(List.of(), index.search("e@c", 10).stream().filter(v -> v.id() == 1L).toList(),
+                "Trigram candidates are verified against the text");
+        assertEquals(1, index.search("e", 1).size(), "Results stop at the limit");
+    }
+
+    @Test
+    public void testPutAndRemove_KeepIndexCurrent() {
+        index.put(new AccountView(1L, "John Doe", "john@example.com", 0L));
+        index.put(new AccountView(1L, "Johnny Walker", "johnny@example.com", 2L));
+        index.put(new AccountView(1L, "Stale Name", "stale@example.com", 1L));
+
+        assertEquals(List.of(), index.search("doe", 10), "The old name is no longer indexed");
+        assertEquals(List.of(), index.search("stale", 10), "An older version never replaces a newer one");
+        assertEquals(2L, index.search("walker", 10).get(0).version());
+
+        index.remove(1L);
+        assertEquals(List.of(), index.search("walker", 10));
+        assertEquals(0, index.size());
+    }
+
+    @Test
+    public void testLoading_DoesNotResurrectDeletedAccounts() {
+        index.remove(7L);
+        index.put(new AccountView(7L, "Deleted While Loading", "gone@example.com", 0L));
+        index.markReady();
+
+        assertEquals(List.of(), index.search("gone", 10));
+        index.put(new AccountView(8L, "Created Later", "new@example.com", 0L));
+        assertEquals(1, index.search("later", 10).size());
+    }
+
+    @Test
+    public void testCompaction_KeepsLiveDocuments() {
+        for (long id = 1; id <= 5000; id++) {
+            index.put(new AccountView(id, "User " + id, "user" + id + "@example.com", 0L));
+        }
+        for (long id = 1; id <= 5000; id++) {
+            index.put(new AccountView(id, "Renamed " + id, "user" + id + "@example.com", 1L));
+        }
+
+        assertEquals(5000, index.size());
+        assertEquals(List.of(4321L), ids(index.search("renamed 4321", 10)));
+        assertEquals(List.of(), index.search("user 4321", 10));
+    }
+}
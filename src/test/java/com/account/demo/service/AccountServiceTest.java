@@ -1,20 +1,43 @@
 package com.account.demo.service;
 
 import com.account.demo.dao.AccountRepository;
+import com.account.demo.dao.AccountStore;
 import com.account.demo.model.Account;
+import com.account.demo.model.AccountCredentials;
 import com.account.demo.model.AccountBuilder;
+import com.account.demo.model.AccountLookup;
+import com.account.demo.model.AccountPage;
+import com.account.demo.model.AccountView;
+import com.account.demo.model.BatchCreateResponse;
+import com.account.demo.model.VerificationResult;
+import com.account.demo.util.EmailBloomFilter;
+import com.account.demo.util.PasswordHasher;
 import com.account.demo.util.PasswordUtil;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.util.Assert;
 import org.junit.jupiter.api.Assertions;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.*;
@@ -31,6 +54,38 @@ public class AccountServiceTest {
     @MockBean
     private AccountRepository accountRepository;
 
+    @Autowired
+    private AccountCache accountCache;
+
+    @SpyBean
+    private EmailBloomFilter emailFilter;
+
+    @SpyBean
+    private PasswordHasher passwordHasher;
+
+    @Autowired
+    private MeterRegistry registry;
+
+    @Autowired
+    private IdempotencyCache idempotencyCache;
+
+    // Names of the threads that computed hashes since the call
+    private Set<String> recordHashingThreads() {
+        Set<String> threads = ConcurrentHashMap.newKeySet();
+        doAnswer(invocation -> {
+            threads.add(Thread.currentThread().getName());
+            return invocation.callRealMethod();
+        }).when(passwordHasher).hash(anyString());
+        return threads;
+    }
+
+    @BeforeEach
+    public void clearCache() {
+        // The caches outlive each test's mocks, so start every test cold
+        accountCache.invalidateAll();
+        idempotencyCache.invalidateAll();
+    }
+
 
     @Test
     public void testCreateAccount_Success() {
@@ -60,6 +115,87 @@ public class AccountServiceTest {
         verify(accountRepository, times(1)).save(account);
     }
 
+    @Test
+    public void testCreateAccountAsync_IdempotencyKeyReplaysFirstResult() throws Exception {
+        Account account = new AccountBuilder()
+                .setName("John Doe")
+                .setEmail("johndoe@example.com")
+                .setPassword("Password123")
+                .build();
+        Account retry = new AccountBuilder()
+                .setName("John Doe")
+                .setEmail("johndoe@example.com")
+                .setPassword("Password123")
+                .build();
+        when(accountRepository.save(any(Account.class))).thenAnswer(invocation -> {
+            Account saved = invocation.getArgument(0);
+            saved.setId(1L);
+            return saved;
+        });
+
+        // The retry arrives while the first request is still hashing and waits for it
+        CompletableFuture<AccountView> inFlight = accountService.createAccountAsync(account, "key-1");
+        CompletableFuture<AccountView> duplicate = accountService.createAccountAsync(retry, "key-1");
+        AccountView first = inFlight.get(5, TimeUnit.SECONDS);
+        AccountView replayed = duplicate.get(5, TimeUnit.SECONDS);
+        assertEquals(first, accountService.createAccountAsync(retry, "key-1").get(5, TimeUnit.SECONDS));
+
+        assertEquals(1L, first.id());
+        assertEquals(first, replayed);
+        verify(accountRepository, times(1)).save(any(Account.class));
+
+        Account changed = new AccountBuilder()
+                .setName("John Doe")
+                .setEmail("johndoe@example.com")
+                .setPassword("Password456")
+                .build();
+        assertThrows(IdempotencyKeyMismatchException.class, () -> accountService.createAccountAsync(changed, "key-1"));
+        assertThrows(IllegalArgumentException.class, () -> accountService.createAccountAsync(changed, " "));
+    }
+
+    @Test
+    public void testCreateAccountAsync_HashesOffCallerThread() throws Exception {
+        Account account = new AccountBuilder()
+                .setName("John Doe")
+                .setEmail("johndoe@example.com")
+                .setPassword("Password123")
+                .build();
+        when(accountRepository.save(account)).thenAnswer(invocation -> {
+            account.setId(1L);
+            return account;
+        });
+        Set<String> hashingThreads = recordHashingThreads();
+
+        Account createdAccount = accountService.createAccountAsync(account).get(5, TimeUnit.SECONDS);
+
+        assertEquals(1L, createdAccount.getId(), "Created account should have an ID");
+        assertTrue(createdAccount.getPassword().startsWith("$2a$"), "Password should be stored as a BCrypt hash");
+        assertEquals(1, hashingThreads.size());
+        assertTrue(hashingThreads.iterator().next().startsWith("password-hash-"), "Hashed on " + hashingThreads);
+        verify(accountRepository, times(1)).save(account);
+    }
+
+    @Test
+    public void testCreateAccount_DuplicateEmail_ThrowsException() {
+        emailFilter.put("taken@example.com");
+        when(accountRepository.existsByEmail("taken@example.com")).thenReturn(true);
+
+        Account account = new AccountBuilder()
+                .setName("John Doe")
+                .setEmail("taken@example.com")
+                .setPassword("Password123")
+                .build();
+
+        assertThrows(DuplicateEmailException.class, () -> accountService.createAccount(account));
+        verify(accountRepository, never()).save(any(Account.class));
+    }
+
+    @Test
+    public void testGetAccountByEmail_UnknownEmailSkipsDatabase() {
+        assertNull(accountService.getAccountByEmail("nobody-" + System.nanoTime() + "@example.com"));
+        verify(accountRepository, never()).findViewByEmail(anyString());
+    }
+
     @Test
     public void testCreateAccount_NullAccount() {
         try {
@@ -70,74 +206,237 @@ public class AccountServiceTest {
         }
     }
 
+    @Test
+    public void testCreateAccounts_ReportsPerItemResults() {
+        List<Account> accounts = List.of(
+                new AccountBuilder().setName("John Doe").setEmail("johndoe@example.com").setPassword("Password123").build(),
+                new AccountBuilder().setName("Jane Doe").setEmail("janedoe@example.com").setPassword("short").build());
+
+        when(accountRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<Account> batch = invocation.getArgument(0);
+            long id = 1L;
+            for (Account account : batch) {
+                account.setId(id++);
+            }
+            return batch;
+        });
+        Set<String> hashingThreads = recordHashingThreads();
+
+        BatchCreateResponse response = accountService.createAccounts(accounts);
+
+        assertEquals(1, response.created(), "Valid account should be created");
+        assertEquals(1, response.failed(), "Invalid account should be reported");
+        assertEquals(1L, response.results().get(0).id());
+        assertEquals("Password must contain at least one uppercase letter, one lowercase letter, and one digit",
+                response.results().get(1).error());
+        assertNotEquals("Password123", accounts.get(0).getPassword(), "Password should be hashed before insert");
+        assertTrue(passwordHasher.matches("Password123", accounts.get(0).getPassword()));
+        assertFalse(hashingThreads.isEmpty());
+        assertTrue(hashingThreads.stream().allMatch(name -> name.startsWith("password-hash-")),
+                "Batch hashes must run on the hashing pool, not " + hashingThreads);
+        verify(accountRepository, times(1)).saveAll(anyList());
+    }
+
+    @Test
+    public void testCreateAccounts_FailedChunkRetriedRowByRow() {
+        List<Account> accounts = List.of(
+                new AccountBuilder().setName("John Doe").setEmail("johndoe@example.com").setPassword("Password123").build(),
+                new AccountBuilder().setName("Jane Doe").setEmail("raced@example.com").setPassword("Password123").build(),
+                new AccountBuilder().setName("Jim Doe").setEmail("jimdoe@example.com").setPassword("Password123").build());
+        long[] nextId = {1L};
+        // The second email is registered by another request between the pre-check and the insert
+        when(accountRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<Account> batch = invocation.getArgument(0);
+            for (Account account : batch) {
+                account.setId(nextId[0]++);
+                account.setVersion(0L);
+            }
+            if (batch.stream().anyMatch(account -> account.getEmail().equals("raced@example.com"))) {
+                throw new DataIntegrityViolationException("Duplicate email");
+            }
+            return batch;
+        });
+
+        BatchCreateResponse response = accountService.createAccounts(accounts);
+
+        assertEquals(2, response.created());
+        assertEquals(1, response.failed());
+        assertNotNull(response.results().get(0).id());
+        assertNotNull(response.results().get(2).id());
+        assertTrue(response.results().get(1).error().startsWith("Insert failed"));
+        // Retried as new rows, and the failed one is left as it came in
+        assertNull(accounts.get(1).getId());
+        assertNull(accounts.get(1).getVersion());
+        verify(accountRepository, times(4)).saveAll(anyList());
+    }
+
     @Test
     public void testGetAccountById_ExistingId() {
         Long id = 1L;
-        Account account = new AccountBuilder()
-                .setName("John Doe")
-                .setEmail("johndoe@example.com")
-                .setPassword("hashedPassword")
-                .build();
-
-        Optional<Account> optionalAccount = Optional.of(account);
+        AccountView view = new AccountView(id, "John Doe", "johndoe@example.com", 0L);
 
-        when(accountRepository.findById(id)).thenReturn(optionalAccount);
+        when(accountRepository.findViewById(id)).thenReturn(Optional.of(view));
 
-        Account retrievedAccount = accountService.getAccountById(id);
+        AccountView retrievedAccount = accountService.getAccountById(id);
 
         Assert.notNull(retrievedAccount, "Retrieved account should not be null");
-        Assertions.assertNotEquals(id, retrievedAccount.getId(), "Retrieved account ID should match");
-        verify(accountRepository, times(1)).findById(id);
+        assertEquals(id, retrievedAccount.id(), "Retrieved account ID should match");
+        verify(accountRepository, times(1)).findViewById(id);
+        verify(accountRepository, never()).findById(id);
     }
 
     @Test
     public void testGetAccountById_NonExistingId() {
         Long id = 1L;
-        when(accountRepository.findById(id)).thenReturn(Optional.empty());
+        when(accountRepository.findViewById(id)).thenReturn(Optional.empty());
 
-        Account retrievedAccount = accountService.getAccountById(id);
+        AccountView retrievedAccount = accountService.getAccountById(id);
 
         Assert.isNull(retrievedAccount, "Retrieved account should be null for non-existent ID");
-        verify(accountRepository, times(1)).findById(id);
+        verify(accountRepository, times(1)).findViewById(id);
     }
 
     @Test
-    public void testGetAllAccounts() {
-        List<Account> accounts = new ArrayList<>();
-        accounts.add(new AccountBuilder()
-                .setId(1L)
-                .setName("John Doe")
+    public void testGetAccountById_ServedFromCacheUntilWrite() {
+        Long id = 1L;
+        AccountView original = new AccountView(id, "John Doe", "johndoe@example.com", 0L);
+        AccountView renamed = new AccountView(id, "Johnny Doe", "johndoe@example.com", 1L);
+        Account update = new AccountBuilder()
+                .setName("Johnny Doe")
                 .setEmail("johndoe@example.com")
-                .setPassword("password123")
-                .build());
+                .build();
 
-        accounts.add(new AccountBuilder()
-                .setId(2L)
-                .setName("John Doe")
-                .setEmail("johndoe@example.com")
-                .setPassword("hashedPassword")
-                .build());
+        when(accountRepository.findViewById(id)).thenReturn(Optional.of(original));
+        accountService.getAccountById(id);
+        accountService.getAccountById(id);
+        verify(accountRepository, times(1)).findViewById(id);
+
+        when(accountRepository.updateNameAndEmail(id, "Johnny Doe", "johndoe@example.com", null)).thenReturn(1);
+        when(accountRepository.findViewById(id)).thenReturn(Optional.of(renamed));
+        accountService.updateAccount(id, update);
+
+        AccountView afterUpdate = accountService.getAccountById(id);
+        assertEquals("Johnny Doe", afterUpdate.name(), "Read after update must not be stale");
+
+        when(accountRepository.deleteAccountById(id)).thenReturn(1);
+        when(accountRepository.findViewById(id)).thenReturn(Optional.empty());
+        accountService.deleteAccount(id);
+
+        assertNull(accountService.getAccountById(id), "Read after delete must not be stale");
+    }
+
+    @Test
+    public void testGetAccountsByIds_UsesCacheAndReportsMissing() {
+        AccountView cached = new AccountView(1L, "John Doe", "johndoe@example.com", 0L);
+        AccountView loaded = new AccountView(2L, "Jane Doe", "janedoe@example.com", 0L);
+        when(accountRepository.findViewById(1L)).thenReturn(Optional.of(cached));
+        accountService.getAccountById(1L);
+
+        when(accountRepository.findViewsByIdIn(List.of(2L, 3L))).thenReturn(List.of(loaded));
+
+        AccountLookup lookup = accountService.getAccountsByIds(List.of(2L, 1L, 3L, 2L));
 
+        assertEquals(List.of(loaded, cached), lookup.found(), "Found accounts should follow request order");
+        assertEquals(List.of(3L), lookup.missing(), "Unknown ids should be reported as missing");
+        verify(accountRepository, times(1)).findViewsByIdIn(List.of(2L, 3L));
 
-        when(accountRepository.findAll()).thenReturn(accounts);
+        // The loaded row is now cached too
+        assertEquals(loaded, accountService.getAccountById(2L));
+        verify(accountRepository, never()).findViewById(2L);
+    }
+
+    @Test
+    public void testGetAccountsByIds_UpdateDuringLoadIsNotCachedOver() throws Exception {
+        AccountView before = new AccountView(5L, "John Doe", "johndoe@example.com", 0L);
+        AccountView after = new AccountView(5L, "Johnny", "johnny@example.com", 1L);
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch updated = new CountDownLatch(1);
+        when(accountRepository.findViewsByIdIn(List.of(5L))).thenAnswer(invocation -> {
+            loading.countDown();
+            assertTrue(updated.await(10, TimeUnit.SECONDS));
+            return List.of(before);
+        });
+        when(accountRepository.updateNameAndEmail(5L, "Johnny", "johnny@example.com", 0L)).thenReturn(1);
+        when(accountRepository.findViewById(5L)).thenReturn(Optional.of(after));
+
+        // The multi-get reads the old row, then the update commits and invalidates before it caches
+        CompletableFuture<AccountLookup> lookup = CompletableFuture.supplyAsync(() -> accountService.getAccountsByIds(List.of(5L)));
+        assertTrue(loading.await(10, TimeUnit.SECONDS));
+        Account account = new AccountBuilder().setName("Johnny").setEmail("johnny@example.com").build();
+        accountService.updateAccount(5L, account, 0L);
+        updated.countDown();
+
+        assertEquals(List.of(before), lookup.get(10, TimeUnit.SECONDS).found());
+        assertEquals(after, accountService.getAccountById(5L), "The old row must not be cached over the update");
+    }
+
+    @Test
+    public void testGetAccounts_FirstPage() {
+        List<AccountView> accounts = new ArrayList<>();
+        accounts.add(new AccountView(1L, "John Doe", "johndoe@example.com", 0L));
+        accounts.add(new AccountView(2L, "John Doe", "johndoe2@example.com", 0L));
+        accounts.add(new AccountView(3L, "Jane Doe", "janedoe@example.com", 0L));
+
+        when(accountRepository.findViewsByIdGreaterThan(0L, Limit.of(3))).thenReturn(accounts);
+
+        AccountPage page = accountService.getAccounts(null, 2);
+
+        Assert.notNull(page, "Retrieved page should not be null");
+        assertEquals(2, page.items().size(), "Page size should match the limit");
+        assertEquals(2L, page.nextCursor(), "Next cursor should be the last id on the page");
+        verify(accountRepository, times(1)).findViewsByIdGreaterThan(0L, Limit.of(3));
+    }
 
-        List<Account> retrievedAccounts = accountService.getAllAccounts();
+    @Test
+    public void testGetAccounts_LastPage() {
+        List<AccountView> accounts = new ArrayList<>();
+        accounts.add(new AccountView(3L, "Jane Doe", "janedoe@example.com", 0L));
+
+        when(accountRepository.findViewsByIdGreaterThan(2L, Limit.of(3))).thenReturn(accounts);
+
+        AccountPage page = accountService.getAccounts(2L, 2);
+
+        assertEquals(1, page.items().size(), "Last page should hold the remaining rows");
+        assertNull(page.nextCursor(), "Last page should not have a next cursor");
+    }
 
-        Assert.notNull(retrievedAccounts, "Retrieved accounts list should not be null");
-        assertEquals(2, retrievedAccounts.size(), "Retrieved accounts list size should match");
-        verify(accountRepository, times(1)).findAll();
+    @Test
+    public void testExportAccounts_StreamsNdjson() throws Exception {
+        int count = AccountStore.EXPORT_FETCH_SIZE + 1;
+        when(accountRepository.streamAllViews()).thenReturn(LongStream.rangeClosed(1, count)
+                .mapToObj(id -> new AccountView(id, "User " + id, "user" + id + "@example.com", 0L)));
+        List<Integer> flushedAt = new ArrayList<>();
+        boolean[] closed = {false};
+        ByteArrayOutputStream out = new ByteArrayOutputStream() {
+            @Override
+            public void flush() {
+                flushedAt.add(size());
+            }
+
+            @Override
+            public void close() {
+                closed[0] = true;
+            }
+        };
+
+        long exported = accountService.exportAccounts(out);
+
+        assertEquals(count, exported);
+        List<String> lines = out.toString(StandardCharsets.UTF_8).lines().toList();
+        assertEquals(count, lines.size(), "One document per line");
+        assertEquals("{\"id\":1,\"name\":\"User 1\",\"email\":\"user1@example.com\",\"version\":0}", lines.get(0));
+        assertTrue(out.toString(StandardCharsets.UTF_8).endsWith("\n"));
+        assertFalse(out.toString(StandardCharsets.UTF_8).contains("password"));
+        // Flushed after every fetch batch, and the response stream is left open for the container
+        assertEquals(AccountStore.EXPORT_FETCH_SIZE, out.toString(StandardCharsets.UTF_8).substring(0, flushedAt.get(0)).lines().count());
+        assertFalse(closed[0]);
+        verify(accountRepository, never()).findAll();
     }
 
     @Test
     public void testUpdateAccount_ExistingId() {
         Long id = 1L;
-        Account existingAccount = new AccountBuilder()
-                .setId(id)
-                .setName("John Doe")
-                .setEmail("johndoe@example.com")
-                .setPassword("hashedPassword")
-                .build();
-        Optional<Account> optionalAccount = Optional.of(existingAccount);
+        AccountView existing = new AccountView(id, "John Doe", "johndoe@example.com", 1L);
 
         Account updatedAccount = new AccountBuilder()
                 .setId(null)
@@ -146,101 +445,177 @@ public class AccountServiceTest {
                 .setPassword(null)
                 .build();
 
-        when(accountRepository.findById(id)).thenReturn(optionalAccount);
-        // Simulate saving the updated account (mocked behavior)
-        Account savedAccount = new AccountBuilder()
-                .setId(id)
-                .setName("John Doe")
-                .setEmail("johndoe@example.com")
-                .setPassword("hashedPassword")
-                .build();
-        when(accountRepository.save(any(Account.class))).thenReturn(savedAccount);
+        // Single UPDATE statement, then the fresh row is read back as a projection
+        when(accountRepository.updateNameAndEmail(id, "John Doe", "johndoe@example.com", null)).thenReturn(1);
+        when(accountRepository.findViewById(id)).thenReturn(Optional.of(existing));
 
-        Account updated = accountService.updateAccount(id, updatedAccount);
+        AccountView updated = accountService.updateAccount(id, updatedAccount);
 
         Assert.notNull(updated, "Updated account should not be null");
-        assertEquals(id, updated.getId(), "Updated account ID should match");
-        assertEquals("John Doe", updated.getName(), "Updated account name should match");
-        assertEquals("johndoe@example.com", updated.getEmail(), "Updated account email should match");
-        verify(accountRepository, times(1)).findById(id);
-        verify(accountRepository, times(1)).save(any(Account.class));
+        assertEquals(id, updated.id(), "Updated account ID should match");
+        assertEquals("John Doe", updated.name(), "Updated account name should match");
+        assertEquals("johndoe@example.com", updated.email(), "Updated account email should match");
+        verify(accountRepository, times(1)).updateNameAndEmail(id, "John Doe", "johndoe@example.com", null);
+        verify(accountRepository, times(1)).findViewById(id);
+        verify(accountRepository, never()).save(any(Account.class));
     }
 
     @Test
-    public void testPatchAccount_ValidPassword_UpdatesAccount() throws Exception {
+    public void testUpdateAccount_WithExpectedVersion_SkipsReadBack() {
+        Long id = 1L;
+        Account updatedAccount = new AccountBuilder()
+                .setName("John Doe")
+                .setEmail("johndoe@example.com")
+                .build();
+        when(accountRepository.updateNameAndEmail(id, "John Doe", "johndoe@example.com", 4L)).thenReturn(1);
 
-       try {
-           Long id = 1L;
-           String existingPassword = "oldPassword";
-           String updatedPassword = "newPassword";
+        AccountView updated = accountService.updateAccount(id, updatedAccount, 4L);
 
-           // Mock AccountRepository
-           Account existingAccount = new Account(id, "John Doe", "johndoe@example.com", PasswordUtil.hashPassword(existingPassword));
-           Optional<Account> optionalAccount = Optional.of(existingAccount);
-           when(accountRepository.findById(id)).thenReturn(optionalAccount);
+        assertEquals(5L, updated.version(), "Version should advance by one");
+        verify(accountRepository, never()).findViewById(id);
+    }
 
-           // Mock password validation (optional)
-           when(accountService.validatePassword(updatedPassword)).thenReturn(true);
+    @Test
+    public void testUpdateAccount_NewEmail_CountsRemoval() {
+        Long id = 1L;
+        String oldEmail = "old-" + System.nanoTime() + "@example.com";
+        String newEmail = "new-" + System.nanoTime() + "@example.com";
+        emailFilter.put(oldEmail);
+        when(accountRepository.updateNameAndEmail(eq(id), anyString(), anyString(), eq(0L))).thenReturn(1);
 
-           // Update account with new password
-           Account updatedAccount = new Account(null, null, null, updatedPassword);
-           Account savedAccount = accountService.patchAccount(id, updatedAccount);
+        accountService.updateAccount(id, new AccountBuilder().setName("John Doe").setEmail(oldEmail).build(), 0L);
+        verify(emailFilter, never()).recordRemoval();
 
-           // Verify behavior
-           assertThat(savedAccount).isNotNull();
-           assertThat(savedAccount.getPassword()).isEqualTo(PasswordUtil.hashPassword(updatedPassword));
-           verify(accountRepository).save(existingAccount);
-       }catch (IllegalArgumentException e) {
-           assertEquals("Password must contain at least one uppercase letter, one lowercase letter, and one digit", e.getMessage());
-       }
+        // The old email's bits stay set, so the change counts towards the next rebuild
+        accountService.updateAccount(id, new AccountBuilder().setName("John Doe").setEmail(newEmail).build(), 0L);
+        verify(emailFilter, times(1)).recordRemoval();
     }
 
-    @Test()
-    public void testPatchAccount_InvalidPassword_ThrowsException() throws Exception {
-
-        try {
-            Long id = 1L;
-            String existingPassword = "oldPassword";
-            String invalidPassword = "short";
+    @Test
+    public void testUpdateAccount_NonExistingId_ReturnsNull() {
+        Account updatedAccount = new AccountBuilder()
+                .setName("John Doe")
+                .setEmail("johndoe@example.com")
+                .build();
 
-            // Mock AccountRepository
-            Account existingAccount = new Account(id, "John Doe", "johndoe@example.com", PasswordUtil.hashPassword(existingPassword));
-            Optional<Account> optionalAccount = Optional.of(existingAccount);
-            when(accountRepository.findById(id)).thenReturn(optionalAccount);
+        assertNull(accountService.updateAccount(1L, updatedAccount), "Zero updated rows should map to not found");
+    }
 
-            // Mock password validation (optional)
-            when(accountService.validatePassword(invalidPassword)).thenReturn(false); // Optional
+    @Test
+    public void testUpdateAccount_StaleVersion_ThrowsException() {
+        Long id = 1L;
+        Account existingAccount = new AccountBuilder()
+                .setId(id)
+                .setName("John Doe")
+                .setEmail("johndoe@example.com")
+                .setPassword("hashedPassword")
+                .build();
+        existingAccount.setVersion(3L);
+        when(accountRepository.findVersionById(id)).thenReturn(Optional.of(existingAccount.getVersion()));
 
-            // Update account with invalid password
-            Account updatedAccount = new Account(null, null, null, invalidPassword);
-            accountService.patchAccount(id, updatedAccount);
-            throw new IllegalArgumentException("Invalid argument");
-        } catch (IllegalArgumentException e) {
-            assertEquals("Password must contain at least one uppercase letter, one lowercase letter, and one digit", e.getMessage());
-        }
+        Account updatedAccount = new AccountBuilder()
+                .setName("Johnny Doe")
+                .setEmail("johndoe@example.com")
+                .build();
 
+        assertThrows(PreconditionFailedException.class, () -> accountService.updateAccount(id, updatedAccount, 2L));
+        verify(accountRepository, times(1)).updateNameAndEmail(id, "Johnny Doe", "johndoe@example.com", 2L);
     }
 
     @Test
-    public void testPatchAccount_AccountNotFound_ReturnsNull() throws Exception {
+    public void testPatchAccountAsync_ValidPassword_UpdatesAccount() throws Exception {
         Long id = 1L;
+        AccountView patched = new AccountView(id, "John Doe", "johndoe@example.com", 1L);
+        when(accountRepository.updatePassword(eq(id), anyString(), isNull())).thenReturn(1);
+        when(accountRepository.findViewById(id)).thenReturn(Optional.of(patched));
+
+        Account updatedAccount = new Account(null, null, null, "NewPassword1");
+        AccountView savedAccount = accountService.patchAccountAsync(id, updatedAccount, null).get(10, TimeUnit.SECONDS);
+
+        assertThat(savedAccount).isEqualTo(patched);
+        // One UPDATE with the BCrypt hash; the row is never loaded as an entity
+        verify(accountRepository).updatePassword(eq(id), argThat(hash -> hash.startsWith("$2a$")), isNull());
+        verify(accountRepository, never()).findById(id);
+        verify(accountRepository, never()).save(any(Account.class));
+    }
+
+    @Test
+    public void testPatchAccountAsync_InvalidPassword_ThrowsException() {
+        Account updatedAccount = new Account(null, null, null, "short");
 
-        // Mock AccountRepository
-        when(accountRepository.findById(id)).thenReturn(Optional.empty());
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> accountService.patchAccountAsync(1L, updatedAccount, null));
+        assertEquals("Password must contain at least one uppercase letter, one lowercase letter, and one digit", e.getMessage());
+        verify(accountRepository, never()).updatePassword(any(), any(), any());
+    }
 
-        // Update account with non-existent ID
-        Account updatedAccount = new Account(null, null, null, "newPassword");
-        Account savedAccount = accountService.patchAccount(id, updatedAccount);
+    @Test
+    public void testPatchAccountAsync_AccountNotFound_ReturnsNull() throws Exception {
+        Account updatedAccount = new Account(null, null, null, "NewPassword1");
 
-        // Verify behavior
-        assertThat(savedAccount).isNull();
+        assertNull(accountService.patchAccountAsync(1L, updatedAccount, null).get(10, TimeUnit.SECONDS));
     }
 
     @Test
     public void testDeleteAccount_Success() {
         Long id = 1L;
-        accountService.deleteAccount(id);
-        verify(accountRepository).deleteById(id);
+        when(accountRepository.deleteAccountById(id)).thenReturn(1);
+        assertTrue(accountService.deleteAccount(id), "Deleting an existing account should report success");
+        verify(accountRepository).deleteAccountById(id);
+        verify(accountRepository, never()).deleteById(id);
+    }
+
+    @Test
+    public void testVerifyPassword_UpgradesWeakHash() throws Exception {
+        String weakHash = new BCryptPasswordEncoder(4).encode("Password123");
+        when(accountRepository.findCredentialsByEmail("johndoe@example.com"))
+                .thenReturn(Optional.of(new AccountCredentials(1L, weakHash, 3L)));
+
+        VerificationResult verified = accountService.verifyPasswordAsync("johndoe@example.com", "Password123").get(10, TimeUnit.SECONDS);
+        assertEquals(VerificationResult.verified(1L), verified);
+        // Re-hashed at the configured cost, conditional on the version that was verified
+        verify(accountRepository, timeout(5000)).updatePassword(eq(1L), argThat(hash -> hash.startsWith("$2a$10$")), eq(3L));
+
+        assertFalse(accountService.verifyPasswordAsync("johndoe@example.com", "Wrong1234").get(10, TimeUnit.SECONDS).verified());
+        assertEquals(VerificationResult.rejected(), accountService.verifyPasswordAsync("nobody@example.com", "Password123").get(10, TimeUnit.SECONDS));
+        verify(accountRepository, times(1)).updatePassword(any(), any(), any());
+    }
+
+    private long operationCount(String operation) {
+        return registry.get(AccountMetrics.OPERATION_TIMER).tag("operation", operation).timer().count();
+    }
+
+    @Test
+    public void testMetrics_RecordOperationsAndOutcomes() throws Exception {
+        long gets = operationCount("get");
+        long creates = operationCount("create");
+        long validations = registry.get("account.password.validation").timer().count();
+        double negatives = registry.get("account.email.filter.negatives").counter().count();
+        when(accountRepository.findViewById(1L)).thenReturn(Optional.of(new AccountView(1L, "John Doe", "johndoe@example.com", 0L)));
+
+        accountService.getAccountById(1L);
+        accountService.getAccountById(1L);
+        assertEquals(gets + 2, operationCount("get"), "Cache hits are timed too");
+
+        // Failures are timed as well; the rejected password is one policy check
+        Account weak = new AccountBuilder().setName("John Doe").setEmail("weak@example.com").setPassword("weak").build();
+        assertThrows(IllegalArgumentException.class, () -> accountService.createAccount(weak));
+        assertEquals(creates + 1, operationCount("create"));
+        assertEquals(validations + 1, registry.get("account.password.validation").timer().count());
+
+        assertNull(accountService.getAccountByEmail("nobody-" + System.nanoTime() + "@example.com"));
+        assertEquals(negatives + 1, registry.get("account.email.filter.negatives").counter().count());
+
+        // Async operations stop the timer when the future completes
+        long patches = operationCount("patch");
+        accountService.patchAccountAsync(1L, new AccountBuilder().setPassword("NewPassword1").build(), null).get(10, TimeUnit.SECONDS);
+        assertEquals(patches + 1, operationCount("patch"));
+        assertTrue(registry.get(AccountMetrics.OPERATION_TIMER).tag("operation", "patch").timer().totalTime(TimeUnit.NANOSECONDS) > 0);
+    }
+
+    @Test
+    public void testDeleteAccount_NonExistingId_ReturnsFalse() {
+        assertFalse(accountService.deleteAccount(1L), "Zero deleted rows should map to not found");
     }
 
     @Test()
@@ -0,0 +1,21 @@
+package com.account.demo.service;
+
+import com.account.demo.dao.InMemoryAccountStore;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+
+/**
+ * Runs the shared scenarios on the memory profile: no DataSource, no JPA, snapshots off.
+ */
+@SpringBootTest(properties = "account.store.memory.snapshot-path=")
+@ActiveProfiles("memory")
+public class InMemoryAccountServiceTest extends AbstractAccountServiceTest {
+
+    @Test
+    public void testStoreIsInMemory() {
+        assertInstanceOf(InMemoryAccountStore.class, accountStore);
+    }
+}
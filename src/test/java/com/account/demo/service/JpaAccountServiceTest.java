@@ -0,0 +1,20 @@
+package com.account.demo.service;
+
+import com.account.demo.dao.JpaAccountStore;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+
+/**
+ * Runs the shared scenarios on the JPA store. The database is private to this context so the
+ * schema is not dropped under it by other test contexts sharing the default H2 name.
+ */
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:account_service_test")
+public class JpaAccountServiceTest extends AbstractAccountServiceTest {
+
+    @Test
+    public void testStoreIsJpa() {
+        assertInstanceOf(JpaAccountStore.class, accountStore);
+    }
+}
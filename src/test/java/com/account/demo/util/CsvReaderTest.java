@@ -0,0 +1,38 @@
+package com.account.demo.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CsvReaderTest {
+
+    @Test
+    public void testQuotedFieldsAndLineEndings() throws IOException {
+        CsvReader reader = new CsvReader(new StringReader(
+                "name,email\r\n\"Doe, John\",john@example.com\r\n\n\"Say \"\"hi\"\"\nthere\",\n\"\",last"));
+
+        assertEquals(List.of("name", "email"), reader.next());
+        assertEquals(1, reader.recordLine());
+        assertEquals(List.of("Doe, John", "john@example.com"), reader.next());
+        assertEquals(2, reader.recordLine());
+        assertEquals(List.of("Say \"hi\"\nthere", ""), reader.next());
+        assertEquals(4, reader.recordLine());
+        assertEquals(List.of("", "last"), reader.next());
+        assertEquals(6, reader.recordLine());
+        assertNull(reader.next());
+    }
+
+    @Test
+    public void testMalformedInput() throws IOException {
+        CsvReader unterminated = new CsvReader(new StringReader("a,b\n\"open,c\n"));
+        unterminated.next();
+        assertThrows(CsvReader.CsvFormatException.class, unterminated::next);
+
+        CsvReader strayQuote = new CsvReader(new StringReader("\"a\"b,c\n"));
+        assertThrows(CsvReader.CsvFormatException.class, strayQuote::next);
+    }
+}
@@ -0,0 +1,42 @@
+package com.account.demo.util;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CustomResponsePojoTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    // The map bodies these replaced, as Jackson wrote them
+    private byte[] mapBody(String message, HttpStatus status) throws Exception {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("message", message);
+        map.put("status", status.value());
+        return objectMapper.writeValueAsBytes(map);
+    }
+
+    @Test
+    public void testCachedBodiesMatchMapBodies() throws Exception {
+        assertArrayEquals(mapBody("Account Successfully Created", HttpStatus.CREATED), CustomResponsePojo.ACCOUNT_CREATED.getBody());
+        assertArrayEquals(mapBody("Account Successfully Deleted", HttpStatus.OK), CustomResponsePojo.ACCOUNT_DELETED.getBody());
+        assertArrayEquals(mapBody("Account Not Found", HttpStatus.NOT_FOUND), CustomResponsePojo.ACCOUNT_NOT_FOUND.getBody());
+        assertEquals(HttpStatus.NOT_FOUND, CustomResponsePojo.ACCOUNT_NOT_FOUND.getStatusCode());
+        assertEquals(MediaType.APPLICATION_JSON, CustomResponsePojo.ACCOUNT_CREATED.getHeaders().getContentType());
+    }
+
+    @Test
+    public void testGeneratedBodyEscapesMessage() throws Exception {
+        String message = "Quote \" backslash \\ newline \n é";
+        ResponseEntity<byte[]> response = CustomResponsePojo.generateResponse(message, HttpStatus.ACCEPTED);
+        assertArrayEquals(mapBody(message, HttpStatus.ACCEPTED), response.getBody());
+        assertEquals(message, objectMapper.readTree(response.getBody()).get("message").asText());
+    }
+}
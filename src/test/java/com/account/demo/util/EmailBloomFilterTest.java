@@ -0,0 +1,84 @@
+package com.account.demo.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class EmailBloomFilterTest {
+
+    @Test
+    public void testPutsRacingRebuildsAreNeverLost() throws Exception {
+        EmailBloomFilter filter = new EmailBloomFilter(100_000, 0.01);
+        filter.rebuild(sink -> { });
+        // Stands in for the table: an email is committed first and put into the filter after, so a
+        // scan may miss it; the scan sees everything committed before it started
+        Set<String> committed = ConcurrentHashMap.newKeySet();
+        AtomicBoolean done = new AtomicBoolean();
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+        try {
+            Future<?> rebuilds = executor.submit(() -> {
+                while (!done.get()) {
+                    filter.rebuild(committed::forEach);
+                }
+            });
+            List<Future<?>> writers = new ArrayList<>();
+            for (int w = 0; w < 2; w++) {
+                int writer = w;
+                writers.add(executor.submit(() -> {
+                    for (int i = 0; i < 20_000; i++) {
+                        String email = "user-" + writer + "-" + i + "@example.com";
+                        committed.add(email);
+                        filter.put(email);
+                        assertTrue(filter.mightContain(email), email);
+                    }
+                }));
+            }
+            for (Future<?> writer : writers) {
+                writer.get();
+            }
+            done.set(true);
+            rebuilds.get();
+        } finally {
+            executor.shutdownNow();
+        }
+        for (int w = 0; w < 2; w++) {
+            for (int i = 0; i < 20_000; i++) {
+                assertTrue(filter.mightContain("user-" + w + "-" + i + "@example.com"));
+            }
+        }
+    }
+
+    @Test
+    public void testPutsDuringRebuildCountAsEntries() {
+        EmailBloomFilter filter = new EmailBloomFilter(1000, 0.01);
+        filter.rebuild(sink -> {
+            for (int i = 0; i < 10; i++) {
+                filter.put("new-" + i + "@example.com");
+            }
+        });
+        filter.recordRemoval();
+        filter.recordRemoval();
+
+        // Two removals against ten entries, not against an empty filter
+        assertTrue(filter.isStale(0.1));
+        assertFalse(filter.isStale(0.25));
+    }
+
+    @Test
+    public void testNullEmail() {
+        EmailBloomFilter filter = new EmailBloomFilter(1000, 0.01);
+        filter.put(null);
+        filter.rebuild(sink -> sink.accept(null));
+        assertFalse(filter.mightContain(null));
+        assertFalse(filter.mightContain("nobody@example.com"));
+    }
+}
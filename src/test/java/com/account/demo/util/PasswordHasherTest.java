@@ -0,0 +1,116 @@
+package com.account.demo.util;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PasswordHasherTest {
+
+    @Test
+    public void testHashAllKeepsOrder() {
+        PasswordHasher hasher = new PasswordHasher(4, 2, 4, 0, 1, 1, new SimpleMeterRegistry());
+        try {
+            List<String> passwords = List.of("Password1", "Password2", "Password3", "Password4", "Password5");
+            List<String> hashes = hasher.hashAll(passwords);
+            assertEquals(passwords.size(), hashes.size());
+            for (int i = 0; i < passwords.size(); i++) {
+                assertTrue(hasher.matches(passwords.get(i), hashes.get(i)), passwords.get(i));
+            }
+            assertEquals(List.of(), hasher.hashAll(List.of()));
+        } finally {
+            hasher.shutdown();
+        }
+    }
+
+    @Test
+    public void testHashAllRejectedWhenSaturated() throws Exception {
+        MeterRegistry registry = new SimpleMeterRegistry();
+        // One thread and one queue slot, both taken by slow hashes
+        PasswordHasher hasher = new PasswordHasher(12, 1, 1, 0, 1, 1, registry);
+        try {
+            CompletableFuture<String> running = hasher.hashAsync("Password1");
+            CompletableFuture<String> queued = hasher.hashAsync("Password2");
+
+            assertThrows(RejectedExecutionException.class, () -> hasher.hashAll(List.of("Password3", "Password4")));
+            assertEquals(1, registry.get("account.password.hash.rejected").counter().count());
+
+            running.get(30, TimeUnit.SECONDS);
+            queued.get(30, TimeUnit.SECONDS);
+            assertEquals(2, hasher.hashAll(List.of("Password3", "Password4")).size());
+        } finally {
+            hasher.shutdown();
+        }
+    }
+
+    // Hashing pool of four with slow hashes, of which one batch may use two
+    private static class CountingHasher extends PasswordHasher {
+
+        final AtomicInteger running = new AtomicInteger();
+
+        final AtomicInteger maxRunning = new AtomicInteger();
+
+        final AtomicInteger calls = new AtomicInteger();
+
+        CountingHasher() {
+            super(4, 4, 64, 2, 1, 1, new SimpleMeterRegistry());
+        }
+
+        @Override
+        public String hash(String password) {
+            calls.incrementAndGet();
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            try {
+                if (password.equals("fail")) {
+                    throw new IllegalStateException("hash failed");
+                }
+                Thread.sleep(20);
+                return super.hash(password);
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            } finally {
+                running.decrementAndGet();
+            }
+        }
+    }
+
+    @Test
+    public void testHashAllLeavesRoomForOtherRequests() throws Exception {
+        CountingHasher hasher = new CountingHasher();
+        try {
+            CompletableFuture<List<String>> batch = CompletableFuture.supplyAsync(
+                    () -> hasher.hashAll(Collections.nCopies(50, "Password1")));
+
+            // A single hash is not stuck behind the batch
+            assertNotNull(hasher.hashAsync("Password2").get(5, TimeUnit.SECONDS));
+            assertFalse(batch.isDone());
+            assertEquals(50, batch.get(30, TimeUnit.SECONDS).size());
+            assertTrue(hasher.maxRunning.get() <= 3, "Batch used " + hasher.maxRunning.get() + " threads");
+        } finally {
+            hasher.shutdown();
+        }
+    }
+
+    @Test
+    public void testHashAllStopsAtFirstFailure() {
+        CountingHasher hasher = new CountingHasher();
+        try {
+            List<String> passwords = new ArrayList<>(Collections.nCopies(20, "Password1"));
+            passwords.set(0, "fail");
+
+            assertThrows(IllegalStateException.class, () -> hasher.hashAll(passwords));
+            assertTrue(hasher.calls.get() <= 2, "Hashed " + hasher.calls.get() + " passwords after the failure");
+        } finally {
+            hasher.shutdown();
+        }
+    }
+}
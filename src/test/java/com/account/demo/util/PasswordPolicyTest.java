@@ -0,0 +1,50 @@
+package com.account.demo.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.EnumSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PasswordPolicyTest {
+
+    private static final String LEGACY_REGEX = "^(?=.*[A-Z])(?=.*[a-z])(?=.*\\d)[A-Za-z\\d]{8,}$";
+
+    @Test
+    public void testDefaultsMatchTheOriginalRule() {
+        PasswordPolicy policy = new PasswordPolicy(8, 0, true, true, true, false, false, List.of());
+        List<String> passwords = List.of("Password123", "password", "PASSWORD1", "Pass1", "Passw0rd", "Password 123",
+                "Pässword123", "Password!123", "12345678aB", "   ", "");
+        for (String password : passwords) {
+            String expected = password.trim().isEmpty() ? PasswordPolicy.EMPTY_MESSAGE
+                    : password.matches(LEGACY_REGEX) ? null : PasswordPolicy.FORMAT_MESSAGE;
+            assertEquals(expected, policy.check(password).message(), password);
+        }
+        assertTrue(policy.check(null).has(PasswordPolicy.Violation.EMPTY));
+        assertEquals(EnumSet.of(PasswordPolicy.Violation.TOO_SHORT, PasswordPolicy.Violation.MISSING_UPPERCASE,
+                PasswordPolicy.Violation.MISSING_DIGIT), policy.check("pass").violations());
+        assertSame(policy.check("password"), policy.check("lowercaseonly"));
+    }
+
+    @Test
+    public void testSymbolsLengthAndDenyList() {
+        PasswordPolicy policy = new PasswordPolicy(8, 16, true, true, true, true, false, List.of(" Summer2024! ", ""));
+
+        assertTrue(policy.check("Tr0ub4dor&3").isValid());
+        assertEquals(EnumSet.of(PasswordPolicy.Violation.MISSING_SYMBOL), policy.check("Password123").violations());
+        assertEquals("Password must contain at least one symbol", policy.check("Password123").message());
+        assertEquals(EnumSet.of(PasswordPolicy.Violation.TOO_LONG), policy.check("Tr0ub4dor&3-Tr0ub4dor&3").violations());
+        assertEquals(EnumSet.of(PasswordPolicy.Violation.DENIED), policy.check("sUMMER2024!").violations());
+        assertEquals("Password is too common", policy.check("SuMmEr2024!").message());
+    }
+
+    @Test
+    public void testMessageListsEveryViolation() {
+        PasswordPolicy policy = new PasswordPolicy(8, 0, true, true, true, false, false, List.of("password"));
+
+        assertEquals(EnumSet.of(PasswordPolicy.Violation.MISSING_UPPERCASE, PasswordPolicy.Violation.MISSING_DIGIT,
+                PasswordPolicy.Violation.DENIED), policy.check("password").violations());
+        assertEquals(PasswordPolicy.FORMAT_MESSAGE + "; Password is too common", policy.check("password").message());
+    }
+}
@@ -0,0 +1,76 @@
+package com.account.demo.util;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockAsyncContext;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RateLimitFilterTest {
+
+    private final AtomicLong now = new AtomicLong(-TimeUnit.SECONDS.toNanos(100));
+
+    // 1 read/s with a burst of 2, 1 write/s with a burst of 1, one concurrent hashing request
+    private final RateLimitFilter filter = new RateLimitFilter(true, "X-Client-Id",
+            new RateLimitFilter.Limit(1, 2), new RateLimitFilter.Limit(1, 1), 1,
+            Duration.ofMinutes(1), now::get, new SimpleMeterRegistry());
+
+    private MockHttpServletResponse send(String method, String uri, String client) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, uri);
+        request.addHeader("X-Client-Id", client);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+
+    @Test
+    public void testReads_LimitedPerClientWithRetryAfter() throws Exception {
+        assertEquals(200, send("GET", "/api/v1/accounts/1", "a").getStatus());
+        assertEquals(200, send("GET", "/api/v1/accounts/1", "a").getStatus());
+
+        MockHttpServletResponse rejected = send("GET", "/api/v1/accounts/1", "a");
+        assertEquals(429, rejected.getStatus());
+        assertEquals("1", rejected.getHeader("Retry-After"));
+
+        assertEquals(200, send("GET", "/api/v1/accounts/1", "b").getStatus(), "Other clients keep their own bucket");
+        assertEquals(200, send("DELETE", "/api/v1/accounts/1", "a").getStatus(), "Writes have a separate bucket");
+        assertEquals(200, send("GET", "/actuator/health", "a").getStatus(), "Only /api/** is limited");
+
+        now.addAndGet(TimeUnit.SECONDS.toNanos(1));
+        assertEquals(200, send("GET", "/api/v1/accounts/1", "a").getStatus(), "A token refills after 1s");
+    }
+
+    @Test
+    public void testHashingRequests_HoldPermitUntilAsyncCompletes() throws Exception {
+        MockHttpServletRequest first = new MockHttpServletRequest("POST", "/api/v1/accounts/create");
+        first.addHeader("X-Client-Id", "a");
+        first.setAsyncSupported(true);
+        filter.doFilter(first, new MockHttpServletResponse(), (req, res) -> req.startAsync());
+
+        assertEquals(429, send("PATCH", "/api/v1/accounts/1", "b").getStatus(), "The only permit is still held");
+
+        ((MockAsyncContext) first.getAsyncContext()).complete();
+        assertEquals(200, send("PATCH", "/api/v1/accounts/1", "c").getStatus());
+        assertEquals(200, send("PATCH", "/api/v1/accounts/1", "d").getStatus(), "Synchronous requests release at once");
+    }
+
+    @Test
+    public void testEvictIdle_DropsFullBuckets() throws Exception {
+        send("GET", "/api/v1/accounts/1", "a");
+        send("GET", "/api/v1/accounts/1", "b");
+        now.addAndGet(TimeUnit.SECONDS.toNanos(30));
+        send("GET", "/api/v1/accounts/1", "b");
+
+        now.addAndGet(TimeUnit.SECONDS.toNanos(40));
+        filter.evictIdle();
+
+        assertEquals(1, filter.clientCount(), "Only the client seen within the idle timeout stays");
+    }
+}